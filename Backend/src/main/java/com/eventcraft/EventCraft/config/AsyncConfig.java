@@ -0,0 +1,35 @@
+package com.eventcraft.EventCraft.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The pool every @Async method runs on (realtime pushes, automated replies, background refreshes and startup jobs).
+ * The STOMP broker registers executors of its own, so without a bean named taskExecutor Spring would fall back
+ * to a new thread per call. When the queue is full the caller runs the task itself, which slows a burst down
+ * instead of dropping pushes.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String TASK_EXECUTOR = "taskExecutor";
+
+    @Bean(name = TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor taskExecutor(@Value("${eventcraft.async.core-size:8}") int coreSize,
+                                               @Value("${eventcraft.async.max-size:16}") int maxSize,
+                                               @Value("${eventcraft.async.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("async-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.eventcraft.EventCraft.config;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DBRef resolver that reads through the DbRefIdentityMap while a scope is open, so a document referenced by
+ * every entity of a page is read once per request instead of once per entity. References into collections
+ * of the EntityCache are then answered from it before MongoDB is asked.
+ */
+public class BatchingDbRefResolver extends DefaultDbRefResolver {
+
+    private final EntityCache entityCache;
+
+    public BatchingDbRefResolver(MongoDatabaseFactory mongoDbFactory, EntityCache entityCache) {
+        super(mongoDbFactory);
+        this.entityCache = entityCache;
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        if (DbRefIdentityMap.contains(dbRef)) {
+            return DbRefIdentityMap.get(dbRef);
+        }
+        Document document = entityCache.get(dbRef.getCollectionName(), dbRef.getId(), id -> super.fetch(dbRef));
+        DbRefIdentityMap.put(dbRef, document);
+        return document;
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> refs) {
+        if (refs.isEmpty() || !DbRefIdentityMap.isOpen() && !entityCache.caches(refs.get(0).getCollectionName())) {
+            return super.bulkFetch(refs);
+        }
+        // The default bulk fetch expects a single collection, so all refs share it
+        String collection = refs.get(0).getCollectionName();
+        Map<Object, Document> known = new HashMap<>();
+        List<DBRef> missing = new ArrayList<>();
+        for (DBRef ref : refs) {
+            if (DbRefIdentityMap.contains(ref)) {
+                known.put(ref.getId(), DbRefIdentityMap.get(ref));
+                continue;
+            }
+            Document cached = entityCache.getIfPresent(collection, ref.getId());
+            if (cached != null) {
+                known.put(ref.getId(), cached);
+                DbRefIdentityMap.put(ref, cached);
+            } else {
+                missing.add(ref);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // One $in for everything neither level had
+            long generation = entityCache.generation(collection);
+            List<Document> fetched = super.bulkFetch(missing);
+            for (Document document : fetched) {
+                known.put(document.get("_id"), document);
+            }
+            entityCache.putAll(collection, generation, fetched);
+            missing.forEach(ref -> DbRefIdentityMap.put(ref, known.get(ref.getId())));
+        }
+        // Same contract as the default: documents in reference order, missing ones left out
+        List<Document> documents = new ArrayList<>(refs.size());
+        for (DBRef ref : refs) {
+            Document document = known.get(ref.getId());
+            if (document != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventcraft.EventCraft.config;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Referenced documents already read in the current scope, by collection and id.
+ * A scope is opened per GET request (DbRefIdentityMapFilter) or around a batched read; while one is open,
+ * the BatchingDbRefResolver answers DBRefs from it and reads each referenced document at most once.
+ */
+public final class DbRefIdentityMap {
+
+    private static final ThreadLocal<Map<String, Document>> DOCUMENTS = new ThreadLocal<>();
+
+    private DbRefIdentityMap() {
+    }
+
+    /**
+     * Open a scope on this thread, or join the one already open. Close it when done.
+     */
+    public static Scope open() {
+        if (DOCUMENTS.get() != null) {
+            return () -> {
+            };
+        }
+        DOCUMENTS.set(new HashMap<>());
+        return DOCUMENTS::remove;
+    }
+
+    public static boolean isOpen() {
+        return DOCUMENTS.get() != null;
+    }
+
+    public static boolean contains(DBRef ref) {
+        Map<String, Document> documents = DOCUMENTS.get();
+        return documents != null && documents.containsKey(key(ref));
+    }
+
+    /**
+     * The document for a reference; null when it is unknown or known not to exist.
+     */
+    public static Document get(DBRef ref) {
+        Map<String, Document> documents = DOCUMENTS.get();
+        return documents != null ? documents.get(key(ref)) : null;
+    }
+
+    /**
+     * Remember the document for a reference, or null for a reference that points at nothing.
+     */
+    public static void put(DBRef ref, Document document) {
+        put(ref.getCollectionName(), ref.getId(), document);
+    }
+
+    public static void put(String collection, Object id, Document document) {
+        Map<String, Document> documents = DOCUMENTS.get();
+        if (documents != null) {
+            documents.put(key(collection, id), document);
+        }
+    }
+
+    private static String key(DBRef ref) {
+        return key(ref.getCollectionName(), ref.getId());
+    }
+
+    private static String key(String collection, Object id) {
+        return collection + "/" + id;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
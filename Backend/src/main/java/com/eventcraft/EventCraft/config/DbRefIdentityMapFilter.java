@@ -0,0 +1,31 @@
+package com.eventcraft.EventCraft.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives every GET request its own DbRefIdentityMap scope, discarded when the response is written.
+ * Requests that write are left out, so a document changed by the request is never answered from the map.
+ */
+@Component
+public class DbRefIdentityMapFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (DbRefIdentityMap.Scope scope = DbRefIdentityMap.open()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.eventcraft.EventCraft.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of the raw documents of the hot, rarely written collections (users, vendors,
+ * vendor_packages), by collection and id. It sits behind the per-request DbRefIdentityMap and in front of
+ * MongoDB: findById on their repositories and DBRef resolution both read through it.
+ * Entries are evicted by size and age, and on every save or delete (EntityCacheInvalidationListener).
+ * Documents rather than entities are kept, so each read maps a fresh entity that callers may modify.
+ * Hits, misses and evictions are published per collection as cache.gets, cache.evictions, etc.
+ */
+@Component
+public class EntityCache {
+
+    public static final Set<String> COLLECTIONS = Set.of("users", "vendors", "vendor_packages");
+
+    private final boolean enabled;
+    private final Map<String, Cache<String, Document>> caches;
+    // Bumped on every eviction, so a read that started before a write cannot cache what it read
+    private final Map<String, AtomicLong> generations;
+
+    public EntityCache(MeterRegistry meterRegistry,
+                       @Value("${eventcraft.cache.enabled:true}") boolean enabled,
+                       @Value("${eventcraft.cache.max-size:10000}") long maxSize,
+                       @Value("${eventcraft.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.caches = COLLECTIONS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), collection -> {
+            Cache<String, Document> cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, collection);
+            return cache;
+        }));
+        this.generations = COLLECTIONS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), collection -> new AtomicLong()));
+    }
+
+    public boolean caches(String collection) {
+        return enabled && caches.containsKey(collection);
+    }
+
+    /**
+     * The cached document, or the one the loader reads on a miss. Documents that do not exist are not cached.
+     * The load runs inside Caffeine's per-key computation, which an eviction of the same key waits for.
+     */
+    public Document get(String collection, Object id, Function<String, Document> loader) {
+        if (!caches(collection) || id == null) {
+            return loader.apply(id != null ? id.toString() : null);
+        }
+        return caches.get(collection).get(id.toString(), loader);
+    }
+
+    public Document getIfPresent(String collection, Object id) {
+        return caches(collection) && id != null ? caches.get(collection).getIfPresent(id.toString()) : null;
+    }
+
+    /**
+     * The eviction generation of the collection, to be taken before reading documents to pass to putAll.
+     */
+    public long generation(String collection) {
+        AtomicLong generation = generations.get(collection);
+        return generation != null ? generation.get() : 0;
+    }
+
+    /**
+     * Cache documents read from the collection after generation(collection) returned readGeneration.
+     * If an entry of the collection was evicted since, the read may predate that write, so they are dropped again.
+     */
+    public void putAll(String collection, long readGeneration, Collection<Document> documents) {
+        if (!caches(collection) || documents.isEmpty()) {
+            return;
+        }
+        Cache<String, Document> cache = caches.get(collection);
+        for (Document document : documents) {
+            cache.put(document.get("_id").toString(), document);
+        }
+        // Evictions bump the generation before invalidating: either this sees the bump, or the eviction follows the puts
+        if (generations.get(collection).get() != readGeneration) {
+            documents.forEach(document -> cache.invalidate(document.get("_id").toString()));
+        }
+    }
+
+    public void evict(String collection, Object id) {
+        Cache<String, Document> cache = caches.get(collection);
+        if (cache != null && id != null) {
+            generations.get(collection).incrementAndGet();
+            cache.invalidate(id.toString());
+        }
+    }
+
+    public void evictAll(String collection) {
+        Cache<String, Document> cache = caches.get(collection);
+        if (cache != null) {
+            generations.get(collection).incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+}
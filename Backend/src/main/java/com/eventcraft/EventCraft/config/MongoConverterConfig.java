@@ -0,0 +1,26 @@
+package com.eventcraft.EventCraft.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * The converter Spring Boot would create, with the batching, cache-aware DBRef resolver in place of the default one.
+ */
+@Configuration
+public class MongoConverterConfig {
+
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(MongoDatabaseFactory mongoDatabaseFactory,
+                                                       MongoMappingContext mappingContext,
+                                                       MongoCustomConversions conversions,
+                                                       EntityCache entityCache) {
+        MappingMongoConverter converter = new MappingMongoConverter(
+                new BatchingDbRefResolver(mongoDatabaseFactory, entityCache), mappingContext);
+        converter.setCustomConversions(conversions);
+        return converter;
+    }
+}
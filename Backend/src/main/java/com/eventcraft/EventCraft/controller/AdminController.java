@@ -1,5 +1,6 @@
 package com.eventcraft.EventCraft.controller;
 
+import com.eventcraft.EventCraft.dto.MetricComparisonDTO;
 import com.eventcraft.EventCraft.entity.Vendor;
 import com.eventcraft.EventCraft.service.AdminService;
 import lombok.RequiredArgsConstructor;
@@ -66,6 +67,26 @@ public class AdminController {
         return ResponseEntity.ok(bestVendors);
     }
 
+    @GetMapping("/metrics/compare")
+    public ResponseEntity<?> compareMetrics(
+            @RequestParam(defaultValue = "30d") String window,
+            @RequestParam(required = false) List<String> metrics) {
+        try {
+            Map<String, MetricComparisonDTO> comparisons = adminService.compareMetrics(metrics, window);
+            return ResponseEntity.ok(comparisons);
+        } catch (RuntimeException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @PostMapping("/metrics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDailyMetrics() {
+        int days = adminService.rebuildDailyMetrics();
+        return ResponseEntity.ok(Map.of("message", "Daily metrics rebuilt", "days", days));
+    }
+
     @GetMapping("/reports/growth")
     public ResponseEntity<Map<String, Object>> getGrowthReport() {
         Map<String, Object> report = adminService.getGrowthReport();
@@ -1,5 +1,6 @@
 package com.eventcraft.EventCraft.controller;
 
+import com.eventcraft.EventCraft.dto.AvailabilityIntersectionDTO;
 import com.eventcraft.EventCraft.dto.CalendarAvailabilityDTO;
 import com.eventcraft.EventCraft.dto.DateSelectionDTO;
 import com.eventcraft.EventCraft.entity.Event;
@@ -79,6 +80,23 @@ public class CalendarController {
         }
     }
 
+    /**
+     * Get the days within a range on which a user and all shortlisted vendors are free
+     */
+    @PostMapping("/availability/intersect")
+    public ResponseEntity<AvailabilityIntersectionDTO> getCommonAvailability(@RequestBody AvailabilityIntersectionDTO request) {
+        try {
+            AvailabilityIntersectionDTO result = calendarService.getCommonAvailability(request);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            AvailabilityIntersectionDTO errorResponse = AvailabilityIntersectionDTO.builder()
+                    .success(false)
+                    .message("Error retrieving common availability: " + e.getMessage())
+                    .build();
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     /**
      * Get suggested dates for event planning
      */
@@ -1,10 +1,16 @@
 package com.eventcraft.EventCraft.controller;
 
 import com.eventcraft.EventCraft.dto.ChatDTO;
+import com.eventcraft.EventCraft.dto.InboxPageDTO;
 import com.eventcraft.EventCraft.entity.Chat;
 import com.eventcraft.EventCraft.service.ChatService;
+import com.eventcraft.EventCraft.service.RateLimitExceededException;
+import com.eventcraft.EventCraft.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,12 +24,20 @@ import java.util.Optional;
 public class ChatController {
 
     private final ChatService chatService;
+    private final RateLimiter rateLimiter;
 
     @PostMapping
-    public ResponseEntity<?> createOrGetChat(@Valid @RequestBody ChatDTO chatDTO) {
+    public ResponseEntity<?> createOrGetChat(@Valid @RequestBody ChatDTO chatDTO, HttpServletRequest request) {
         try {
+            // The user opens vendor-to-user chats; the first vendor opens vendor-to-vendor ones
+            String senderId = chatDTO.getUserId() != null ? chatDTO.getUserId() : chatDTO.getVendorId();
+            rateLimiter.acquire(RateLimiter.Action.CREATE_CHAT, senderId, request.getRemoteAddr());
             Chat chat = chatService.createOrGetChat(chatDTO);
             return ResponseEntity.ok(chat);
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -57,16 +71,36 @@ public class ChatController {
         return ResponseEntity.ok(chats);
     }
 
+    @GetMapping("/inbox/{participantId}")
+    public ResponseEntity<?> getInbox(
+            @PathVariable String participantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            InboxPageDTO inbox = chatService.getInbox(participantId, cursor, limit);
+            return ResponseEntity.ok(inbox);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/vendor/{vendorId1}/vendor/{vendorId2}")
     public ResponseEntity<Chat> getChatByVendors(
             @PathVariable String vendorId1,
-            @PathVariable String vendorId2) {
+            @PathVariable String vendorId2,
+            HttpServletRequest request) {
         ChatDTO chatDTO = new ChatDTO();
         chatDTO.setVendorId(vendorId1);
         chatDTO.setVendor2Id(vendorId2);
         try {
+            // Creates the chat when missing, so it shares the chat creation budget
+            rateLimiter.acquire(RateLimiter.Action.CREATE_CHAT, vendorId1, request.getRemoteAddr());
             Chat chat = chatService.createOrGetChat(chatDTO);
             return ResponseEntity.ok(chat);
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -1,5 +1,6 @@
 package com.eventcraft.EventCraft.controller;
 
+import com.eventcraft.EventCraft.dto.EventSummary;
 import com.eventcraft.EventCraft.entity.Event;
 import com.eventcraft.EventCraft.service.EventService;
 import lombok.RequiredArgsConstructor;
@@ -20,8 +21,8 @@ public class EventController {
     private final EventService eventService;
 
     @GetMapping
-    public List<Event> getAllEvents() {
-        return eventService.getAllEvents();
+    public List<EventSummary> getAllEvents() {
+        return eventService.getEventSummaries();
     }
 
     @GetMapping("/{id}")
@@ -1,10 +1,17 @@
 package com.eventcraft.EventCraft.controller;
 
+import com.eventcraft.EventCraft.dto.MessageChangesDTO;
 import com.eventcraft.EventCraft.dto.MessageDTO;
+import com.eventcraft.EventCraft.dto.MessagePageDTO;
+import com.eventcraft.EventCraft.dto.MessageSearchPageDTO;
 import com.eventcraft.EventCraft.entity.Message;
 import com.eventcraft.EventCraft.service.MessageService;
+import com.eventcraft.EventCraft.service.RateLimitExceededException;
+import com.eventcraft.EventCraft.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,21 +28,80 @@ import java.util.Optional;
 public class MessageController {
 
     private final MessageService messageService;
+    private final RateLimiter rateLimiter;
 
     @PostMapping
-    public ResponseEntity<?> sendMessage(@Valid @RequestBody MessageDTO messageDTO) {
+    public ResponseEntity<?> sendMessage(@Valid @RequestBody MessageDTO messageDTO, HttpServletRequest request) {
         try {
+            rateLimiter.acquire(RateLimiter.Action.SEND_MESSAGE, messageDTO.getSenderId(), request.getRemoteAddr());
             Message message = messageService.sendMessage(messageDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(message);
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/chat/{chatId}")
-    public ResponseEntity<List<Message>> getMessagesByChat(@PathVariable String chatId) {
-        List<Message> messages = messageService.getMessagesByChat(chatId);
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<?> getMessagesByChat(
+            @PathVariable String chatId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        // Without paging parameters the full history is returned, as before
+        if (before == null && after == null && limit == null) {
+            List<Message> messages = messageService.getMessagesByChat(chatId);
+            return ResponseEntity.ok(messages);
+        }
+        try {
+            MessagePageDTO page = messageService.getMessagePage(chatId, before, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/chat/{chatId}/changes")
+    public ResponseEntity<?> getChanges(
+            @PathVariable String chatId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            MessageChangesDTO changes = messageService.getChanges(chatId, since, limit);
+            return ResponseEntity.ok(changes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getParticipantChanges(
+            @RequestParam String participantId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            MessageChangesDTO changes = messageService.getParticipantChanges(participantId, since, limit);
+            return ResponseEntity.ok(changes);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMessages(
+            @RequestParam String participantId,
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            MessageSearchPageDTO results = messageService.searchMessages(participantId, q, cursor, limit);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{messageId}")
@@ -0,0 +1,67 @@
+package com.eventcraft.EventCraft.controller;
+
+import com.eventcraft.EventCraft.dto.PresenceDTO;
+import com.eventcraft.EventCraft.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Presence and typing indicators. Over REST, or over STOMP by sending to
+ * /app/presence/{participantId}/heartbeat and /app/chats/{chatId}/typing/{participantId} (body "true" or "false").
+ * Changes are pushed on /topic/presence/{participantId} and as TYPING events on /topic/chats/{chatId}.
+ */
+@RestController
+@RequestMapping("/api/presence")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PresenceController {
+
+    private static final int MAX_IDS = 200;
+
+    private final PresenceService presenceService;
+
+    @PostMapping("/{participantId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable String participantId) {
+        presenceService.heartbeat(participantId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getPresence(@RequestParam List<String> ids) {
+        if (ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().body("At most " + MAX_IDS + " ids per request");
+        }
+        List<PresenceDTO> presence = presenceService.getPresence(ids);
+        return ResponseEntity.ok(presence);
+    }
+
+    @PostMapping("/chats/{chatId}/typing/{participantId}")
+    public ResponseEntity<Void> setTyping(
+            @PathVariable String chatId,
+            @PathVariable String participantId,
+            @RequestParam(defaultValue = "true") boolean typing) {
+        presenceService.setTyping(chatId, participantId, typing);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/chats/{chatId}/typing")
+    public ResponseEntity<Set<String>> getTyping(@PathVariable String chatId) {
+        return ResponseEntity.ok(presenceService.getTyping(chatId));
+    }
+
+    @MessageMapping("/presence/{participantId}/heartbeat")
+    public void heartbeatMessage(@DestinationVariable String participantId) {
+        presenceService.heartbeat(participantId);
+    }
+
+    @MessageMapping("/chats/{chatId}/typing/{participantId}")
+    public void typingMessage(@DestinationVariable String chatId, @DestinationVariable String participantId, String typing) {
+        presenceService.setTyping(chatId, participantId, !"false".equalsIgnoreCase(typing != null ? typing.trim() : null));
+    }
+}
@@ -0,0 +1,42 @@
+package com.eventcraft.EventCraft.controller;
+
+import com.eventcraft.EventCraft.service.RealtimePublisher;
+import com.eventcraft.EventCraft.service.SseHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Server-Sent Events fallback for clients that cannot use the /ws STOMP endpoint.
+ * Streams carry the same events as /topic/chats/{chatId}, /topic/participants/{participantId}
+ * and /topic/presence/{participantId}.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StreamController {
+
+    private final SseHub sseHub;
+
+    @GetMapping(value = "/chats/{chatId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChat(@PathVariable String chatId) {
+        return sseHub.subscribe(RealtimePublisher.chatTopic(chatId));
+    }
+
+    @GetMapping(value = "/participants/{participantId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamParticipant(@PathVariable String participantId) {
+        return sseHub.subscribe(RealtimePublisher.participantTopic(participantId));
+    }
+
+    /**
+     * Presence changes of several participants on one stream, e.g. the counterparts shown in an inbox.
+     */
+    @GetMapping(value = "/presence", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPresence(@RequestParam List<String> ids) {
+        return sseHub.subscribe(ids.stream().distinct().map(RealtimePublisher::presenceTopic).toList());
+    }
+}
@@ -1,6 +1,7 @@
 package com.eventcraft.EventCraft.controller;
 
 import com.eventcraft.EventCraft.dto.LoginRequest;
+import com.eventcraft.EventCraft.dto.UserSummary;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.service.UserService;
 import com.eventcraft.EventCraft.service.UserActivityService;
@@ -23,8 +24,8 @@ public class UserController {
     private final UserActivityService userActivityService;
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<UserSummary> getAllUsers() {
+        return userService.getUserSummaries();
     }
 
     @GetMapping("/{id}")
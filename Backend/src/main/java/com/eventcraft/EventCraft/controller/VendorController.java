@@ -1,16 +1,20 @@
 package com.eventcraft.EventCraft.controller;
 
+import com.eventcraft.EventCraft.dto.VendorAvailabilityDTO;
 import com.eventcraft.EventCraft.dto.VendorRegDTO;
 import com.eventcraft.EventCraft.entity.Review;
 import com.eventcraft.EventCraft.entity.Vendor;
 import com.eventcraft.EventCraft.entity.VendorPackage;
 import com.eventcraft.EventCraft.service.ReviewService;
+import com.eventcraft.EventCraft.service.VendorAvailabilityService;
 import com.eventcraft.EventCraft.service.VendorPackageService;
 import com.eventcraft.EventCraft.service.VendorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +29,7 @@ public class VendorController {
     private final VendorService vendorService;
     private final ReviewService reviewService;
     private final VendorPackageService vendorPackageService;
+    private final VendorAvailabilityService vendorAvailabilityService;
 
     @PostMapping("/register/{userId}")
     public ResponseEntity<?> registerVendor(
@@ -39,7 +44,11 @@ public class VendorController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Vendor>> getAllVendors() {
+    public ResponseEntity<List<Vendor>> getAllVendors(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableOn) {
+        if (availableOn != null) {
+            return ResponseEntity.ok(vendorService.getVendorsAvailableOn(availableOn));
+        }
         return ResponseEntity.ok(vendorService.getAllVendors());
     }
 
@@ -50,6 +59,19 @@ public class VendorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{vendorId}/availability")
+    public ResponseEntity<?> getVendorAvailability(
+            @PathVariable String vendorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            VendorAvailabilityDTO availability = vendorAvailabilityService.getAvailability(vendorId, from, to);
+            return ResponseEntity.ok(availability);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Vendor> getVendorByUserId(@PathVariable String userId) {
         Optional<Vendor> vendor = vendorService.getVendorByUserId(userId);
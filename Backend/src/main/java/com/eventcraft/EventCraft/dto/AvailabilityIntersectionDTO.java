@@ -0,0 +1,24 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityIntersectionDTO {
+    private String userId;
+    private Set<String> vendorIds; // Shortlisted vendors that must all be free
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<LocalDate> availableDates; // Days on which the user and every vendor are free
+    private String message;
+    private boolean success;
+}
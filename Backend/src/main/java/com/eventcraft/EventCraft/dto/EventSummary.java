@@ -0,0 +1,31 @@
+package com.eventcraft.EventCraft.dto;
+
+import com.eventcraft.EventCraft.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Event fields for list endpoints, with the owner as an id instead of the resolved user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventSummary {
+    private String id;
+    private String userId;
+    private String name;
+    private String description;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String location;
+    private Double budget;
+    private Event.Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
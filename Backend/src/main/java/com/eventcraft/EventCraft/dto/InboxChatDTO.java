@@ -0,0 +1,29 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a participant's inbox, as seen by that participant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxChatDTO {
+    private String chatId;
+    private String counterpartId; // The other participant (vendorId or userId)
+    private String counterpartType; // VENDOR or USER
+    private String counterpartName; // Company name for vendors, full name (or username) for users
+    private String counterpartPhotoURL; // Vendor main photo, null for users
+    private String lastMessage;
+    private LocalDateTime lastMessageAt;
+    private LocalDateTime lastActivityAt; // lastMessageAt, or createdAt for chats without messages
+    private boolean pinned;
+    private boolean systemChat;
+    private long unreadCount;
+}
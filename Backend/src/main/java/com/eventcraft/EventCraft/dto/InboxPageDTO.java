@@ -0,0 +1,19 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxPageDTO {
+    private List<InboxChatDTO> chats; // Pinned first, then most recent activity first
+    private long totalChats;
+    private boolean hasMore;
+    private String nextCursor; // Pass as "cursor" to load the next page
+}
@@ -0,0 +1,18 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageChangesDTO {
+    private List<MessageView> changes; // New and updated messages, in order of their last change
+    private boolean hasMore; // More changes are waiting; call again with nextCursor right away
+    private String nextCursor; // Pass as "since" on the next sync
+}
@@ -3,6 +3,7 @@ package com.eventcraft.EventCraft.dto;
 import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 @Data
 public class MessageDTO {
@@ -17,5 +18,8 @@ public class MessageDTO {
 
     @NotNull(message = "Sender type is required")
     private String senderType; // "VENDOR" or "USER"
+
+    @Size(max = 64, message = "Client message ID must be at most 64 characters")
+    private String clientMessageId; // Optional id generated by the client, so a retried send is not stored twice
 }
 
@@ -0,0 +1,19 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessagePageDTO {
+    private List<MessageView> messages; // Oldest first
+    private boolean hasMore; // More messages beyond this page in the requested direction
+    private String beforeCursor; // Pass as "before" to load older messages
+    private String afterCursor; // Pass as "after" to load newer messages
+}
@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.dto;
+
+import com.eventcraft.EventCraft.entity.Message;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchHitDTO {
+    private String messageId;
+    private String chatId;
+    private String senderId;
+    private Message.SenderType senderType;
+    private String snippet; // Part of the content around the first matching term
+    private LocalDateTime createdAt;
+    private double score; // Text relevance, higher is better
+}
@@ -0,0 +1,18 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchPageDTO {
+    private List<MessageSearchHitDTO> hits; // Most relevant first
+    private boolean hasMore;
+    private String nextCursor; // Pass as "cursor" to load the next page
+}
@@ -0,0 +1,28 @@
+package com.eventcraft.EventCraft.dto;
+
+import com.eventcraft.EventCraft.entity.Message;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim message for history pages. Carries the chat id instead of the chat DBRef,
+ * so listing messages never resolves the chat, vendor and user documents.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageView {
+    private String id;
+    private String chatId;
+    private String senderId;
+    private Message.SenderType senderType;
+    private String content;
+    private Message.MessageStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt; // Last change; null for archived messages
+}
@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricComparisonDTO {
+    private String metric;
+    private LocalDate currentFrom;
+    private LocalDate currentTo;
+    private LocalDate previousFrom;
+    private LocalDate previousTo;
+    private double current;
+    private double previous;
+    private double changePercent; // 0 when the previous period is empty
+}
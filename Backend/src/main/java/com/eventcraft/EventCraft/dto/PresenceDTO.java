@@ -0,0 +1,21 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Online state of one participant (vendorId or userId). Held in memory only, never stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceDTO {
+    private String participantId;
+    private boolean online;
+    private LocalDateTime lastActiveAt; // Last heartbeat, null once the participant has been offline past the TTL
+}
@@ -0,0 +1,20 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope pushed over STOMP and SSE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RealtimeEventDTO {
+    private String type; // MESSAGE, MESSAGE_REJECTED, READ, UNREAD_COUNT, NOTIFICATION, PRESENCE, TYPING
+    private String chatId; // Set for chat events
+    private Long unreadCount; // Unread messages in chatId, or unread notifications
+    private Object data; // MessageView, rejected message id and replacedById, Notification, PresenceDTO, typing participant ids, ...
+}
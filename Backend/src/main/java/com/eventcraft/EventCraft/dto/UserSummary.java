@@ -0,0 +1,26 @@
+package com.eventcraft.EventCraft.dto;
+
+import com.eventcraft.EventCraft.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * User fields for list endpoints. As a repository projection only these fields are read,
+ * so the password hash and the event and conversation references never leave the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private String id;
+    private String username;
+    private String email;
+    private String fullName;
+    private String phone;
+    private User.Role role;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.eventcraft.EventCraft.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VendorAvailabilityDTO {
+    private String vendorId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> bookedDates; // Days covered by a confirmed assignment or a signed contract
+    private List<LocalDate> availableDates;
+}
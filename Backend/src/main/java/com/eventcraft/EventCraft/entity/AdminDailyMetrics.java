@@ -0,0 +1,33 @@
+package com.eventcraft.EventCraft.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "admin_daily_metrics")
+public class AdminDailyMetrics {
+
+    @Id
+    private String id; // ISO day (yyyy-MM-dd), so ids sort chronologically
+
+    private LocalDate date;
+
+    private long newUsers;
+    private long newVendors;
+    private long newEvents;
+    private long newContracts;
+    private long bookings; // Signed contracts, bucketed by contract creation day
+    private long completedPayments;
+    private double revenue; // Sum of completed payments, bucketed by payment day
+
+    @Indexed
+    private LocalDateTime updatedAt; // Set on every write; the metric series sync reads buckets changed since its last run
+}
@@ -2,21 +2,32 @@ package com.eventcraft.EventCraft.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document(collection = "chats")
+@CompoundIndexes({
+        @CompoundIndex(name = "vendor_id", def = "{'vendor.$id': 1}"),
+        @CompoundIndex(name = "user_id", def = "{'user.$id': 1}"),
+        @CompoundIndex(name = "vendor2_id", def = "{'vendor2.$id': 1}")
+})
 public class Chat {
 
     @Id
     private String id;
 
+    // Canonical participant key (see ChatPairKeys); unique, created by ChatPairKeyMigration once duplicates are merged
+    private String pairKey;
+
     @DBRef
     private Vendor vendor;
 
@@ -33,6 +44,8 @@ public class Chat {
 
     private LocalDateTime lastMessageAt; // Timestamp of the last message
     private String lastMessage; // Preview of the last message
+
+    private Map<String, LocalDateTime> lastSeenAt; // Read watermark per participant (vendorId or userId)
     
     @Builder.Default
     private Boolean isPinned = false; // For pinned chats like Event Craft support
@@ -0,0 +1,22 @@
+package com.eventcraft.EventCraft.entity;
+
+import lombok.Value;
+
+/**
+ * Participant ids of a chat, copied onto each of its messages when they are written.
+ * The participants of a chat never change, so the copy never goes stale.
+ */
+@Value
+public class ChatParticipants {
+
+    String vendorId;
+    String userId;
+    String vendor2Id;
+
+    public static ChatParticipants of(Chat chat) {
+        return new ChatParticipants(
+                chat.getVendor() != null ? chat.getVendor().getId() : null,
+                chat.getUser() != null ? chat.getUser().getId() : null,
+                chat.getVendor2() != null ? chat.getVendor2().getId() : null);
+    }
+}
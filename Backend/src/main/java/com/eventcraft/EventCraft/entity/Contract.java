@@ -2,6 +2,8 @@ package com.eventcraft.EventCraft.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 
@@ -13,6 +15,10 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(collection = "contracts")
+@CompoundIndexes({
+        @CompoundIndex(name = "vendor_signed", def = "{'vendor.$id': 1, 'signed': 1}"),
+        @CompoundIndex(name = "event_id", def = "{'event.$id': 1}")
+})
 public class Contract {
 
     @Id
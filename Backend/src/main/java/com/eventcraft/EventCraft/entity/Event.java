@@ -2,6 +2,7 @@ package com.eventcraft.EventCraft.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 
@@ -14,6 +15,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(collection = "events")
+// Serves the per-user lookups and the calendar's overlap query (startDate <= to, endDate >= from)
+@CompoundIndex(name = "user_startDate_endDate", def = "{'user.$id': 1, 'startDate': 1, 'endDate': 1}")
 public class Event {
 
     @Id
@@ -37,13 +40,14 @@ public class Event {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    @DBRef
+    // Loaded on first access, so reading an event does not pull its whole object graph
+    @DBRef(lazy = true)
     private List<ChatbotConversation> conversations;
 
-    @DBRef
+    @DBRef(lazy = true)
     private List<Contract> contracts;
 
-    @DBRef
+    @DBRef(lazy = true)
     private List<EventVendor> vendors;
 
     public enum Status {
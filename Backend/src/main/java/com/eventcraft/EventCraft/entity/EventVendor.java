@@ -2,6 +2,8 @@ package com.eventcraft.EventCraft.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 
@@ -10,6 +12,10 @@ import org.springframework.data.mongodb.core.mapping.DBRef;
 @AllArgsConstructor
 @Builder
 @Document(collection = "event_vendors")
+@CompoundIndexes({
+        @CompoundIndex(name = "vendor_status", def = "{'vendor.$id': 1, 'status': 1}"),
+        @CompoundIndex(name = "event_id", def = "{'event.$id': 1}")
+})
 public class EventVendor {
 
     @Id
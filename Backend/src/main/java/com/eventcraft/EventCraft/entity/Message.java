@@ -1,28 +1,43 @@
 package com.eventcraft.EventCraft.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document(collection = "messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "chatId_createdAt_id", def = "{'chatId': 1, 'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "chatId_updatedAt_id", def = "{'chatId': 1, 'updatedAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "senderId_clientMessageId", def = "{'senderId': 1, 'clientMessageId': 1}", unique = true,
+                partialFilter = "{'clientMessageId': {'$exists': true}}")
+})
 public class Message {
 
     @Id
     private String id;
 
-    @DBRef
-    private Chat chat;
+    private String chatId;
+
+    private ChatParticipants participants; // Snapshot of the chat's participants, so reads never load the chat
 
     private String senderId; // ID of the sender (vendorId or userId)
     private SenderType senderType; // VENDOR or USER
 
+    private String clientMessageId; // Set when the client sent one; unique per sender
+
+    @TextIndexed
     private String content; // Message text content
 
     @Builder.Default
@@ -31,6 +46,26 @@ public class Message {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    private LocalDateTime updatedAt; // Moved forward by every write, so clients can sync changes since a cursor
+
+    /**
+     * The chat reference as it used to be serialized, reduced to ids, for clients reading message.chat.
+     */
+    @JsonProperty("chat")
+    public Map<String, Object> getChatRef() {
+        if (chatId == null) {
+            return null;
+        }
+        Map<String, Object> chat = new LinkedHashMap<>();
+        chat.put("id", chatId);
+        if (participants != null) {
+            chat.put("vendor", participants.getVendorId() != null ? Map.of("id", participants.getVendorId()) : null);
+            chat.put("user", participants.getUserId() != null ? Map.of("id", participants.getUserId()) : null);
+            chat.put("vendor2", participants.getVendor2Id() != null ? Map.of("id", participants.getVendor2Id()) : null);
+        }
+        return chat;
+    }
+
     public enum SenderType {
         VENDOR, USER
     }
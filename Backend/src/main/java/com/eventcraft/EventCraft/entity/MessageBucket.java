@@ -0,0 +1,33 @@
+package com.eventcraft.EventCraft.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Archived messages of one chat and one day, stored as a single gzipped record array.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "message_buckets")
+public class MessageBucket {
+
+    @Id
+    private String id; // chatId:yyyy-MM-dd, so a chat's buckets sort chronologically by id
+
+    private String chatId;
+    private LocalDate date;
+
+    private int count;
+    private LocalDateTime firstCreatedAt;
+    private LocalDateTime lastCreatedAt;
+
+    private byte[] messages; // Gzipped extended JSON: { "m": [ { _id, senderId, senderType, content, status, createdAt }, ... ] }
+
+    private LocalDateTime archivedAt;
+}
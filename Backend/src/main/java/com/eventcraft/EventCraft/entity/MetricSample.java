@@ -0,0 +1,27 @@
+package com.eventcraft.EventCraft.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "metric_samples")
+@TimeSeries(timeField = "timestamp", metaField = "metric", granularity = Granularity.HOURS)
+public class MetricSample {
+
+    @Id
+    private String id;
+
+    private LocalDateTime timestamp;
+
+    private String metric; // users, vendors, events, contracts, bookings, payments or revenue
+
+    private double value; // Delta applied at this timestamp (negative when a booking is withdrawn)
+}
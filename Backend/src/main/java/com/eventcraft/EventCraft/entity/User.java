@@ -33,10 +33,11 @@ public class User {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    @DBRef
+    // Loaded on first access, so reading a user does not pull every event and conversation
+    @DBRef(lazy = true)
     private List<Event> events;
 
-    @DBRef
+    @DBRef(lazy = true)
     private List<ChatbotConversation> conversations;
 
     public enum Role {
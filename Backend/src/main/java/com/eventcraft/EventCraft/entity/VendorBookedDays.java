@@ -0,0 +1,36 @@
+package com.eventcraft.EventCraft.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * The days of one calendar year on which a vendor is booked, derived from its confirmed event assignments
+ * and signed contracts (VendorAvailabilityService). Only years with at least one booked day are stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "vendor_booked_days")
+@CompoundIndexes({
+        @CompoundIndex(name = "vendorId_year", def = "{'vendorId': 1, 'year': 1}", unique = true),
+        @CompoundIndex(name = "year", def = "{'year': 1}")
+})
+public class VendorBookedDays {
+
+    @Id
+    private String id; // vendorId:year
+
+    private String vendorId;
+    private int year;
+
+    // Bit n (little-endian, as read by $bitsAnySet) is set when day n + 1 of the year is booked
+    private byte[] days;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.AdminDailyMetrics;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AdminDailyMetricsRepository extends MongoRepository<AdminDailyMetrics, String> {
+
+    // Day ids are ISO dates, so an inclusive range scan on _id returns the buckets in order
+    @Query(value = "{ '_id': { $gte: ?0, $lte: ?1 } }", sort = "{ '_id': 1 }")
+    List<AdminDailyMetrics> findDaysBetween(String fromDay, String toDay);
+
+    List<AdminDailyMetrics> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,25 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.Assert;
+
+import java.util.Optional;
+
+final class CachedFinder {
+
+    private CachedFinder() {
+    }
+
+    // Reads the raw document through the EntityCache and maps a new entity from it on every call
+    static <T> Optional<T> findById(MongoTemplate mongoTemplate, EntityCache entityCache, Class<T> type, String id) {
+        Assert.notNull(id, "The given id must not be null");
+        String collection = mongoTemplate.getCollectionName(type);
+        Document document = entityCache.get(collection, id, key -> mongoTemplate.findOne(
+                Query.query(Criteria.where("_id").is(MongoIds.toStoredId(id))), Document.class, collection));
+        return Optional.ofNullable(document).map(found -> mongoTemplate.getConverter().read(type, found));
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventcraft.EventCraft.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Whether the unique pairKey index on chats exists yet. Until ChatPairKeyMigration has merged duplicates and
+ * built it, chats from before pair keys may have none and nothing in the database stops a key being inserted
+ * twice, so chat lookups also match by participants and creation is serialized per key within this instance.
+ */
+@Component
+public class ChatPairKeyIndex {
+
+    private volatile boolean ready;
+    private final Map<String, Object> creationLocks = new ConcurrentHashMap<>();
+
+    public boolean ready() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        creationLocks.clear();
+    }
+
+    <T> T createSerialized(String pairKey, Supplier<T> create) {
+        if (ready) {
+            return create.get();
+        }
+        synchronized (creationLocks.computeIfAbsent(pairKey, key -> new Object())) {
+            return create.get();
+        }
+    }
+
+    /**
+     * The chat by pairKey or, while the index is missing, by the participants a legacy chat without one has.
+     */
+    Criteria keyOrParticipants(String pairKey, boolean systemChat, String vendorId, String userId, String vendor2Id) {
+        Criteria byKey = Criteria.where("pairKey").is(pairKey);
+        if (ready) {
+            return byKey;
+        }
+        return new Criteria().orOperator(byKey, participants(systemChat, vendorId, userId, vendor2Id));
+    }
+
+    private static Criteria participants(boolean systemChat, String vendorId, String userId, String vendor2Id) {
+        if (systemChat) {
+            // User support chats pair the support vendor with the user; vendor support chats have no user
+            return userId != null
+                    ? Criteria.where("isSystemChat").is(true).and("user.$id").is(MongoIds.toStoredId(userId))
+                    : Criteria.where("isSystemChat").is(true).and("vendor.$id").is(MongoIds.toStoredId(vendorId)).and("user").is(null);
+        }
+        Object vendor = MongoIds.toStoredId(vendorId);
+        if (vendor2Id != null) {
+            Object vendor2 = MongoIds.toStoredId(vendor2Id);
+            return Criteria.where("isSystemChat").ne(true).orOperator(
+                    Criteria.where("vendor.$id").is(vendor).and("vendor2.$id").is(vendor2),
+                    Criteria.where("vendor.$id").is(vendor2).and("vendor2.$id").is(vendor));
+        }
+        return Criteria.where("isSystemChat").ne(true).and("vendor.$id").is(vendor).and("user.$id").is(MongoIds.toStoredId(userId));
+    }
+}
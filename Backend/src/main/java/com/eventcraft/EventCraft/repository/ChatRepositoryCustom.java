@@ -0,0 +1,61 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.InboxPageDTO;
+import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.Message;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatRepositoryCustom {
+
+    /**
+     * Ids of every chat the participant (vendorId or userId) takes part in.
+     */
+    List<String> findChatIdsByParticipant(String participantId);
+
+    /**
+     * The chat with this pairKey. Until the unique pairKey index is built (ChatPairKeyIndex), the oldest chat
+     * of these participants is returned as well, since chats from before pair keys may not have one yet.
+     */
+    Optional<Chat> findByPairKey(String pairKey, boolean systemChat, String vendorId, String userId, String vendor2Id);
+
+    /**
+     * Insert the chat unless one with the same pairKey exists, atomically, and return the stored chat.
+     * Until the unique index is built, a legacy chat of the same participants also counts as existing.
+     */
+    Chat upsertByPairKey(Chat chat);
+
+    /**
+     * Set the last message preview in one findAndModify and return the chat as it was before the update
+     * (so with the previous preview), with its participants as id-only stubs (no DBRef is resolved).
+     * When senderId is set the update only applies if the sender is a participant of the chat:
+     * the first or second vendor for vendor senders, the user otherwise.
+     */
+    Optional<Chat> updateLastMessage(String chatId, Message.SenderType senderType, String senderId,
+                                     String lastMessage, LocalDateTime at);
+
+    /**
+     * Put back the preview a chat had before updateLastMessage(at), unless a later message has replaced it since.
+     */
+    void restoreLastMessage(String chatId, LocalDateTime at, String previousMessage, LocalDateTime previousAt);
+
+    /**
+     * Move a participant's read watermark forward to the given time.
+     * Returns false when the chat does not exist or the id is not one of its participants.
+     */
+    boolean markSeen(String chatId, String participantId, LocalDateTime seenAt);
+
+    /**
+     * Load only the chat id and the participant's watermark, without resolving any DBRef.
+     */
+    Optional<Chat> findLastSeen(String chatId, String participantId);
+
+    /**
+     * One aggregation over the participant's chats: the total count, plus up to limit inbox rows ordered
+     * by (pinned, last activity, id) descending, starting strictly after the given position when set.
+     * Only chats and totalChats are filled in.
+     */
+    InboxPageDTO findInbox(String participantId, Boolean afterPinned, LocalDateTime afterActivity, String afterId, int limit);
+}
@@ -0,0 +1,279 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.InboxChatDTO;
+import com.eventcraft.EventCraft.dto.InboxPageDTO;
+import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.entity.User;
+import com.eventcraft.EventCraft.entity.Vendor;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ChatRepositoryImpl implements ChatRepositoryCustom {
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "createdAt", "_id");
+
+    private final MongoTemplate mongoTemplate;
+    private final LegacyMessageChatRefs legacyChatRefs;
+    private final ChatPairKeyIndex pairKeyIndex;
+
+    @Override
+    public List<String> findChatIdsByParticipant(String participantId) {
+        Object participant = MongoIds.toStoredId(participantId);
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("vendor.$id").is(participant),
+                Criteria.where("user.$id").is(participant),
+                Criteria.where("vendor2.$id").is(participant)));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, "chats").stream()
+                .map(chat -> chat.get("_id").toString())
+                .toList();
+    }
+
+    @Override
+    public Optional<Chat> findByPairKey(String pairKey, boolean systemChat, String vendorId, String userId, String vendor2Id) {
+        Query query = Query.query(pairKeyIndex.keyOrParticipants(pairKey, systemChat, vendorId, userId, vendor2Id))
+                .with(OLDEST_FIRST);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Chat.class));
+    }
+
+    @Override
+    public Chat upsertByPairKey(Chat chat) {
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(chat, fields);
+        fields.remove("_id");
+
+        // Oldest first, so a legacy duplicate resolves to the chat ChatPairKeyMigration would keep
+        Query query = Query.query(pairKeyIndex.keyOrParticipants(chat.getPairKey(), Boolean.TRUE.equals(chat.getIsSystemChat()),
+                idOf(chat.getVendor()), chat.getUser() != null ? chat.getUser().getId() : null, idOf(chat.getVendor2())))
+                .with(OLDEST_FIRST);
+        Update update = Update.fromDocument(new Document("$setOnInsert", fields));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        return pairKeyIndex.createSerialized(chat.getPairKey(), () -> {
+            try {
+                return mongoTemplate.findAndModify(query, update, options, Chat.class);
+            } catch (DuplicateKeyException e) {
+                // Two upserts raced on the unique index; the other one inserted the chat
+                return mongoTemplate.findOne(query, Chat.class);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Chat> updateLastMessage(String chatId, Message.SenderType senderType, String senderId,
+                                            String lastMessage, LocalDateTime at) {
+        Criteria criteria = Criteria.where("_id").is(MongoIds.toStoredId(chatId));
+        if (senderId != null) {
+            Object sender = MongoIds.toStoredId(senderId);
+            if (senderType == Message.SenderType.VENDOR) {
+                criteria = criteria.orOperator(Criteria.where("vendor.$id").is(sender), Criteria.where("vendor2.$id").is(sender));
+            } else {
+                criteria = criteria.and("user.$id").is(sender);
+            }
+        }
+        Query query = Query.query(criteria);
+        query.fields().exclude("lastSeenAt");
+        Date date = toDate(at);
+        Update update = new Update().set("lastMessage", lastMessage).set("lastMessageAt", date).set("updatedAt", date);
+
+        Document chat = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false),
+                Document.class, "chats");
+        return Optional.ofNullable(chat).map(ChatRepositoryImpl::toChatStub);
+    }
+
+    @Override
+    public void restoreLastMessage(String chatId, LocalDateTime at, String previousMessage, LocalDateTime previousAt) {
+        Query query = Query.query(Criteria.where("_id").is(MongoIds.toStoredId(chatId)).and("lastMessageAt").is(toDate(at)));
+        mongoTemplate.updateFirst(query, new Update().set("lastMessage", previousMessage)
+                .set("lastMessageAt", previousAt != null ? toDate(previousAt) : null), "chats");
+    }
+
+    @Override
+    public boolean markSeen(String chatId, String participantId, LocalDateTime seenAt) {
+        Object storedParticipantId = MongoIds.toStoredId(participantId);
+        Query query = Query.query(Criteria.where("_id").is(MongoIds.toStoredId(chatId)).orOperator(
+                Criteria.where("vendor.$id").is(storedParticipantId),
+                Criteria.where("user.$id").is(storedParticipantId),
+                Criteria.where("vendor2.$id").is(storedParticipantId)));
+        Update update = new Update().max(lastSeenField(participantId), toDate(seenAt));
+        return mongoTemplate.updateFirst(query, update, "chats").getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<Chat> findLastSeen(String chatId, String participantId) {
+        Query query = Query.query(Criteria.where("_id").is(chatId));
+        query.fields().include(lastSeenField(participantId));
+        return Optional.ofNullable(mongoTemplate.findOne(query, Chat.class));
+    }
+
+    @Override
+    public InboxPageDTO findInbox(String participantId, Boolean afterPinned, LocalDateTime afterActivity, String afterId, int limit) {
+        Object participant = MongoIds.toStoredId(participantId);
+
+        List<Document> page = new ArrayList<>();
+        if (afterId != null) {
+            Date activity = toDate(afterActivity);
+            page.add(new Document("$match", new Document("$or", List.of(
+                    new Document("pinned", new Document("$lt", afterPinned)),
+                    new Document("pinned", afterPinned).append("activity", new Document("$lt", activity)),
+                    new Document("pinned", afterPinned).append("activity", activity)
+                            .append("_id", new Document("$lt", MongoIds.toStoredId(afterId)))))));
+        }
+        page.add(new Document("$sort", new Document("pinned", -1).append("activity", -1).append("_id", -1)));
+        page.add(new Document("$limit", limit));
+
+        // The counterpart is the user or second vendor when the participant is the first vendor, else the first vendor
+        Document isFirstVendor = new Document("$eq", List.of("$vendor.$id", participant));
+        page.add(new Document("$addFields", new Document("counterpartId", new Document("$cond", List.of(
+                        isFirstVendor, new Document("$ifNull", List.of("$user.$id", "$vendor2.$id")), "$vendor.$id")))
+                .append("counterpartType", new Document("$cond", List.of(
+                        new Document("$and", List.of(isFirstVendor, new Document("$gt", Arrays.asList("$user", null)))),
+                        "USER", "VENDOR")))));
+        page.add(new Document("$lookup", new Document("from", "users")
+                .append("localField", "counterpartId")
+                .append("foreignField", "_id")
+                .append("pipeline", List.of(new Document("$project", new Document("fullName", 1).append("username", 1))))
+                .append("as", "counterpartUser")));
+        page.add(new Document("$lookup", new Document("from", "vendors")
+                .append("localField", "counterpartId")
+                .append("foreignField", "_id")
+                .append("pipeline", List.of(new Document("$project", new Document("companyName", 1).append("mainPhotoURL", 1))))
+                .append("as", "counterpartVendor")));
+
+        // Unread: messages from others after the participant's watermark, or not SEEN when there is none
+        Document sameChat = new Document("$eq", List.of("$chatId", "$$chatId"));
+        if (legacyChatRefs.present()) {
+            sameChat = new Document("$or", List.of(sameChat, new Document("$eq", List.of("$chat.$id", "$$chatRef"))));
+        }
+        Document unreadMatch = new Document("$expr", new Document("$and", List.of(
+                sameChat,
+                new Document("$ne", List.of("$senderId", participantId)),
+                new Document("$cond", List.of(
+                        new Document("$gt", Arrays.asList("$$seenAt", null)),
+                        new Document("$gt", List.of("$createdAt", "$$seenAt")),
+                        new Document("$ne", List.of("$status", "SEEN")))))));
+        page.add(new Document("$lookup", new Document("from", "messages")
+                .append("let", new Document("chatId", new Document("$toString", "$_id"))
+                        .append("chatRef", "$_id")
+                        .append("seenAt", new Document("$ifNull", Arrays.asList("$" + lastSeenField(participantId), null))))
+                .append("pipeline", List.of(new Document("$match", unreadMatch), new Document("$count", "count")))
+                .append("as", "unread")));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.stage(new Document("$match", new Document("$or", List.of(
+                        new Document("vendor.$id", participant),
+                        new Document("user.$id", participant),
+                        new Document("vendor2.$id", participant))))),
+                Aggregation.stage(new Document("$addFields", new Document("pinned", new Document("$ifNull", List.of("$isPinned", false)))
+                        .append("activity", new Document("$ifNull", List.of("$lastMessageAt", "$createdAt", new Date(0)))))),
+                Aggregation.stage(new Document("$facet", new Document("total", List.of(new Document("$count", "count")))
+                        .append("page", page))));
+
+        Document result = mongoTemplate.aggregate(aggregation, "chats", Document.class).getUniqueMappedResult();
+        List<InboxChatDTO> chats = new ArrayList<>();
+        long totalChats = 0;
+        if (result != null) {
+            List<Document> total = result.getList("total", Document.class);
+            if (!total.isEmpty()) {
+                totalChats = ((Number) total.get(0).get("count")).longValue();
+            }
+            for (Document chat : result.getList("page", Document.class)) {
+                chats.add(toInboxChat(chat));
+            }
+        }
+        return InboxPageDTO.builder().chats(chats).totalChats(totalChats).build();
+    }
+
+    private InboxChatDTO toInboxChat(Document chat) {
+        String counterpartType = chat.getString("counterpartType");
+        String counterpartName = null;
+        String counterpartPhotoURL = null;
+        if ("USER".equals(counterpartType)) {
+            List<Document> users = chat.getList("counterpartUser", Document.class);
+            if (!users.isEmpty()) {
+                String fullName = users.get(0).getString("fullName");
+                counterpartName = fullName != null ? fullName : users.get(0).getString("username");
+            }
+        } else {
+            List<Document> vendors = chat.getList("counterpartVendor", Document.class);
+            if (!vendors.isEmpty()) {
+                counterpartName = vendors.get(0).getString("companyName");
+                counterpartPhotoURL = vendors.get(0).getString("mainPhotoURL");
+            }
+        }
+        List<Document> unread = chat.getList("unread", Document.class);
+        Object counterpartId = chat.get("counterpartId");
+        return InboxChatDTO.builder()
+                .chatId(String.valueOf(chat.get("_id")))
+                .counterpartId(counterpartId != null ? counterpartId.toString() : null)
+                .counterpartType(counterpartType)
+                .counterpartName(counterpartName)
+                .counterpartPhotoURL(counterpartPhotoURL)
+                .lastMessage(chat.getString("lastMessage"))
+                .lastMessageAt(toLocalDateTime(chat.getDate("lastMessageAt")))
+                .lastActivityAt(toLocalDateTime(chat.getDate("activity")))
+                .pinned(Boolean.TRUE.equals(chat.getBoolean("pinned")))
+                .systemChat(Boolean.TRUE.equals(chat.getBoolean("isSystemChat")))
+                .unreadCount(unread.isEmpty() ? 0 : ((Number) unread.get(0).get("count")).longValue())
+                .build();
+    }
+
+    private static Chat toChatStub(Document chat) {
+        return Chat.builder()
+                .id(chat.get("_id").toString())
+                .pairKey(chat.getString("pairKey"))
+                .vendor(refId(chat, "vendor") != null ? Vendor.builder().id(refId(chat, "vendor")).build() : null)
+                .user(refId(chat, "user") != null ? User.builder().id(refId(chat, "user")).build() : null)
+                .vendor2(refId(chat, "vendor2") != null ? Vendor.builder().id(refId(chat, "vendor2")).build() : null)
+                .createdAt(toLocalDateTime(chat.getDate("createdAt")))
+                .updatedAt(toLocalDateTime(chat.getDate("updatedAt")))
+                .lastMessage(chat.getString("lastMessage"))
+                .lastMessageAt(toLocalDateTime(chat.getDate("lastMessageAt")))
+                .isPinned(Boolean.TRUE.equals(chat.getBoolean("isPinned")))
+                .isSystemChat(Boolean.TRUE.equals(chat.getBoolean("isSystemChat")))
+                .build();
+    }
+
+    private static String refId(Document chat, String field) {
+        Object ref = chat.get(field);
+        return ref instanceof DBRef dbRef && dbRef.getId() != null ? dbRef.getId().toString() : null;
+    }
+
+    private static String idOf(Vendor vendor) {
+        return vendor != null ? vendor.getId() : null;
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    // Participant ids become field names, so only plain ids are accepted
+    private static String lastSeenField(String participantId) {
+        if (participantId == null || !participantId.matches("[A-Za-z0-9_-]+")) {
+            throw new RuntimeException("Invalid participant id: " + participantId);
+        }
+        return "lastSeenAt." + participantId;
+    }
+}
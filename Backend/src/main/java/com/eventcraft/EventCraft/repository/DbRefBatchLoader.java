@@ -0,0 +1,104 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.DbRefIdentityMap;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mapping.AssociationHandler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Reads a list of entities with their eager DBRefs resolved level by level instead of one findById per
+ * reference: the page is read raw, the ids referenced by it are fetched with one $in per collection,
+ * then the ids referenced by those documents, until nothing new is referenced. Every document lands in
+ * the DbRefIdentityMap, from which the converter then hydrates the entities without further reads.
+ */
+@Component
+@RequiredArgsConstructor
+public class DbRefBatchLoader {
+
+    private final MongoTemplate mongoTemplate;
+
+    public <T> List<T> findAll(Class<T> type) {
+        return find(new Query(), type);
+    }
+
+    /**
+     * Entities whose DBRef property points at the given id.
+     */
+    public <T> List<T> findByReference(Class<T> type, String property, String id) {
+        return find(Query.query(Criteria.where(property + ".$id").is(MongoIds.toStoredId(id))), type);
+    }
+
+    public <T> List<T> find(Query query, Class<T> type) {
+        try (DbRefIdentityMap.Scope scope = DbRefIdentityMap.open()) {
+            List<Document> documents = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
+            prefetch(type, documents);
+            List<T> entities = new ArrayList<>(documents.size());
+            for (Document document : documents) {
+                entities.add(mongoTemplate.getConverter().read(type, document));
+            }
+            return entities;
+        }
+    }
+
+    private void prefetch(Class<?> type, List<Document> documents) {
+        Map<Class<?>, List<Document>> level = Map.of(type, documents);
+        while (!level.isEmpty()) {
+            // collection -> referenced id -> type the reference is read as
+            Map<String, Map<Object, Class<?>>> wanted = new LinkedHashMap<>();
+            level.forEach((levelType, levelDocuments) -> collectReferences(levelType, levelDocuments, wanted));
+
+            Map<Class<?>, List<Document>> next = new HashMap<>();
+            wanted.forEach((collection, ids) -> {
+                for (Document document : mongoTemplate.getCollection(collection).find(Filters.in("_id", ids.keySet()))) {
+                    Object id = document.get("_id");
+                    DbRefIdentityMap.put(collection, id, document);
+                    next.computeIfAbsent(ids.remove(id), key -> new ArrayList<>()).add(document);
+                }
+                // Dangling references resolve to null without another read
+                ids.keySet().forEach(id -> DbRefIdentityMap.put(collection, id, null));
+            });
+            level = next;
+        }
+    }
+
+    private void collectReferences(Class<?> type, List<Document> documents, Map<String, Map<Object, Class<?>>> wanted) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(type);
+        if (entity == null) {
+            return;
+        }
+        entity.doWithAssociations((AssociationHandler<MongoPersistentProperty>) association -> {
+            MongoPersistentProperty property = association.getInverse();
+            if (!property.isDbReference() || property.getDBRef() == null || property.getDBRef().lazy()) {
+                return;
+            }
+            for (Document document : documents) {
+                Object value = document.get(property.getFieldName());
+                if (value instanceof DBRef ref) {
+                    want(ref, property.getActualType(), wanted);
+                } else if (value instanceof Collection<?> values) {
+                    for (Object element : values) {
+                        if (element instanceof DBRef ref) {
+                            want(ref, property.getActualType(), wanted);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private static void want(DBRef ref, Class<?> type, Map<String, Map<Object, Class<?>>> wanted) {
+        if (ref.getId() != null && !DbRefIdentityMap.contains(ref)) {
+            wanted.computeIfAbsent(ref.getCollectionName(), key -> new LinkedHashMap<>()).putIfAbsent(ref.getId(), type);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts EntityCache entries on every save, insert and delete that goes through a repository or MongoTemplate.
+ * Update queries publish no mapping events, so users, vendors and vendor_packages are only written by saving
+ * the entity; anything else would be served stale until the entry expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidationListener implements ApplicationListener<MongoMappingEvent<?>> {
+
+    private final EntityCache entityCache;
+
+    @Override
+    public void onApplicationEvent(MongoMappingEvent<?> event) {
+        String collection = event.getCollectionName();
+        if (collection == null || !entityCache.caches(collection)) {
+            return;
+        }
+        if (event instanceof AfterSaveEvent<?> saved && saved.getDocument() != null) {
+            entityCache.evict(collection, saved.getDocument().get("_id"));
+        } else if (event instanceof AfterDeleteEvent<?> deleted) {
+            // The event carries the delete query: a single id evicts one entry, anything wider the collection
+            Object id = deleted.getSource().get("_id");
+            if (id != null && !(id instanceof Document)) {
+                entityCache.evict(collection, id);
+            } else {
+                entityCache.evictAll(collection);
+            }
+        }
+    }
+}
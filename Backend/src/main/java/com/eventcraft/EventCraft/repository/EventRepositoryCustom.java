@@ -0,0 +1,21 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.EventSummary;
+import com.eventcraft.EventCraft.entity.Event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Every event, without resolving its references.
+     */
+    List<EventSummary> findAllSummaries();
+
+    /**
+     * The user's events that overlap [from, to] (inclusive), ordered by start date.
+     * Only id, name, startDate and endDate are read.
+     */
+    List<Event> findOverlapping(String userId, LocalDate from, LocalDate to);
+}
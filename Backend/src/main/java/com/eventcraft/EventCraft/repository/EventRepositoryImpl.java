@@ -0,0 +1,73 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.EventSummary;
+import com.eventcraft.EventCraft.entity.Event;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Event reads that skip the DBRef resolution of the mapped entity. Documents are read raw with
+ * only the needed fields and references reduced to their ids, or mapped from a projection without them.
+ */
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<EventSummary> findAllSummaries() {
+        Query query = new Query();
+        query.fields().include("user", "name", "description", "startDate", "endDate", "location", "budget",
+                "status", "createdAt", "updatedAt");
+
+        List<EventSummary> summaries = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, "events")) {
+            String status = document.getString("status");
+            summaries.add(EventSummary.builder()
+                    .id(String.valueOf(document.get("_id")))
+                    .userId(document.get("user") instanceof DBRef ref ? String.valueOf(ref.getId()) : null)
+                    .name(document.getString("name"))
+                    .description(document.getString("description"))
+                    .startDate(toLocalDate(document.getDate("startDate")))
+                    .endDate(toLocalDate(document.getDate("endDate")))
+                    .location(document.getString("location"))
+                    .budget(document.get("budget") instanceof Number budget ? budget.doubleValue() : null)
+                    .status(status != null ? Event.Status.valueOf(status) : null)
+                    .createdAt(toLocalDateTime(document.getDate("createdAt")))
+                    .updatedAt(toLocalDateTime(document.getDate("updatedAt")))
+                    .build());
+        }
+        return summaries;
+    }
+
+    @Override
+    public List<Event> findOverlapping(String userId, LocalDate from, LocalDate to) {
+        // Bounded by the user_startDate_endDate index; the projection leaves out every reference
+        Query query = Query.query(Criteria.where("user.$id").is(MongoIds.toStoredId(userId))
+                        .and("startDate").lte(to)
+                        .and("endDate").gte(from))
+                .with(Sort.by("startDate"));
+        query.fields().include("name", "startDate", "endDate");
+        return mongoTemplate.find(query, Event.class);
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? toLocalDateTime(date).toLocalDate() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.Message;
+import com.mongodb.DBRef;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the chatId of messages still stored with the legacy chat DBRef, until the migration reaches them.
+ */
+@Component
+public class LegacyMessageChatListener extends AbstractMongoEventListener<Message> {
+
+    @Override
+    public void onAfterConvert(AfterConvertEvent<Message> event) {
+        Message message = event.getSource();
+        if (message.getChatId() == null && event.getDocument() != null
+                && event.getDocument().get("chat") instanceof DBRef ref && ref.getId() != null) {
+            message.setChatId(ref.getId().toString());
+        }
+    }
+}
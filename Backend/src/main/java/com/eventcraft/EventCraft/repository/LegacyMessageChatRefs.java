@@ -0,0 +1,72 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Whether messages may still carry only the legacy chat DBRef instead of a chatId.
+ * Until MessageChatIdMigration reports none left, chat-scoped message reads also match chat.$id, so history
+ * written before the upgrade stays visible while (or if) the migration has not run.
+ */
+@Component
+public class LegacyMessageChatRefs {
+
+    private volatile boolean present = true;
+
+    public boolean present() {
+        return present;
+    }
+
+    public void markMigrated() {
+        present = false;
+    }
+
+    Criteria chatIs(String chatId) {
+        if (!present) {
+            return Criteria.where("chatId").is(chatId);
+        }
+        return new Criteria().orOperator(
+                Criteria.where("chatId").is(chatId),
+                Criteria.where("chat.$id").is(MongoIds.toStoredId(chatId)));
+    }
+
+    Criteria chatIn(Collection<String> chatIds) {
+        if (chatIds.size() == 1) {
+            return chatIs(chatIds.iterator().next());
+        }
+        if (!present) {
+            return Criteria.where("chatId").in(chatIds);
+        }
+        return new Criteria().orOperator(
+                Criteria.where("chatId").in(chatIds),
+                Criteria.where("chat.$id").in(chatIds.stream().map(MongoIds::toStoredId).toList()));
+    }
+
+    /**
+     * The same filter as chatIn, as a raw document for aggregation stages.
+     */
+    Document chatInDocument(Collection<String> chatIds) {
+        Document byChatId = new Document("chatId", new Document("$in", chatIds));
+        if (!present) {
+            return byChatId;
+        }
+        return new Document("$or", List.of(byChatId,
+                new Document("chat.$id", new Document("$in", chatIds.stream().map(MongoIds::toStoredId).toList()))));
+    }
+
+    /**
+     * The chat id of a raw message, from chatId or else the legacy reference.
+     */
+    static String chatIdOf(Document message) {
+        String chatId = message.getString("chatId");
+        if (chatId == null && message.get("chat") instanceof DBRef ref && ref.getId() != null) {
+            return ref.getId().toString();
+        }
+        return chatId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.MessageBucket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MessageBucketRepository extends MongoRepository<MessageBucket, String> {
+
+    // Bucket ids are chatId:ISO day, so range scans on _id walk one chat's days in order
+    @Query(value = "{ '_id': { $gte: ?0, $lte: ?1 } }", sort = "{ '_id': -1 }")
+    List<MessageBucket> findNewestFirst(String fromId, String toId, Pageable pageable);
+
+    @Query(value = "{ '_id': { $gte: ?0, $lte: ?1 } }", sort = "{ '_id': 1 }")
+    List<MessageBucket> findOldestFirst(String fromId, String toId, Pageable pageable);
+}
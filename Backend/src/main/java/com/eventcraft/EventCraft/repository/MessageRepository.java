@@ -4,12 +4,11 @@ import com.eventcraft.EventCraft.entity.Message;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MessageRepository extends MongoRepository<Message, String> {
-    List<Message> findByChat_IdOrderByCreatedAtAsc(String chatId);
-    List<Message> findByChat_IdAndStatus(String chatId, Message.MessageStatus status);
-    List<Message> findByChat_IdAndSenderIdNot(String chatId, String senderId);
+public interface MessageRepository extends MongoRepository<Message, String>, MessageRepositoryCustom {
+    // Chat-scoped reads live in MessageRepositoryImpl, which also matches the legacy chat reference
+    Optional<Message> findBySenderIdAndClientMessageId(String senderId, String clientMessageId);
 }
 
@@ -0,0 +1,55 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.MessageSearchHitDTO;
+import com.eventcraft.EventCraft.dto.MessageView;
+import com.eventcraft.EventCraft.entity.Message;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface MessageRepositoryCustom {
+
+    /**
+     * Every message of a chat, oldest first, including messages not yet moved off the legacy chat reference.
+     */
+    List<Message> findByChatIdOrderByCreatedAtAsc(String chatId);
+
+    /**
+     * Messages of a chat strictly older than (createdAt, id), newest first.
+     * A null createdAt starts from the newest message.
+     */
+    List<MessageView> findViewsBefore(String chatId, LocalDateTime createdAt, String id, int limit);
+
+    /**
+     * Messages of a chat strictly newer than (createdAt, id), oldest first.
+     */
+    List<MessageView> findViewsAfter(String chatId, LocalDateTime createdAt, String id, int limit);
+
+    /**
+     * Messages of the given chats changed strictly after (updatedAt, id) and no later than upTo,
+     * in (updatedAt, id) order. A null updatedAt starts from the first message.
+     */
+    List<MessageView> findChanges(Collection<String> chatIds, LocalDateTime updatedAt, String id, LocalDateTime upTo, int limit);
+
+    /**
+     * Set SEEN on every message of the chat sent by someone else up to the given time, in one update.
+     */
+    long markSeen(String chatId, String readerId, LocalDateTime upTo);
+
+    /**
+     * Count messages from others newer than the reader's watermark.
+     * Without a watermark (chats read before watermarks existed) unseen statuses are counted instead.
+     */
+    long countUnread(String chatId, String readerId, LocalDateTime lastSeenAt);
+
+    List<Message> findUnread(String chatId, String readerId, LocalDateTime lastSeenAt);
+
+    /**
+     * Text search over the messages of the given chats created at or after since (any time when null),
+     * by relevance then id (both descending), starting strictly after (afterScore, afterId) when set.
+     * Snippets hold the full content.
+     */
+    List<MessageSearchHitDTO> search(Collection<String> chatIds, String text, LocalDateTime since,
+                                     Double afterScore, String afterId, int limit);
+}
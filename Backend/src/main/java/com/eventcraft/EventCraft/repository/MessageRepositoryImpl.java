@@ -0,0 +1,190 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.dto.MessageSearchHitDTO;
+import com.eventcraft.EventCraft.dto.MessageView;
+import com.eventcraft.EventCraft.entity.Message;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Queries over the (chatId, createdAt, _id) and (chatId, updatedAt, _id) indexes. History pages are read raw and skip the
+ * participant snapshot, which a page does not need.
+ */
+@RequiredArgsConstructor
+public class MessageRepositoryImpl implements MessageRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final LegacyMessageChatRefs legacyChatRefs;
+
+    @Override
+    public List<Message> findByChatIdOrderByCreatedAtAsc(String chatId) {
+        Query query = Query.query(legacyChatRefs.chatIs(chatId)).with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+        return mongoTemplate.find(query, Message.class);
+    }
+
+    @Override
+    public List<MessageView> findViewsBefore(String chatId, LocalDateTime createdAt, String id, int limit) {
+        Criteria criteria = legacyChatRefs.chatIs(chatId);
+        if (createdAt != null) {
+            Date at = toDate(createdAt);
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(at),
+                    Criteria.where("createdAt").is(at).and("_id").lt(MongoIds.toStoredId(id))));
+        }
+        return find(chatId, criteria, Sort.Direction.DESC, limit);
+    }
+
+    @Override
+    public List<MessageView> findViewsAfter(String chatId, LocalDateTime createdAt, String id, int limit) {
+        Date at = toDate(createdAt);
+        Criteria criteria = new Criteria().andOperator(legacyChatRefs.chatIs(chatId), new Criteria().orOperator(
+                Criteria.where("createdAt").gt(at),
+                Criteria.where("createdAt").is(at).and("_id").gt(MongoIds.toStoredId(id))));
+        return find(chatId, criteria, Sort.Direction.ASC, limit);
+    }
+
+    @Override
+    public List<MessageView> findChanges(Collection<String> chatIds, LocalDateTime updatedAt, String id, LocalDateTime upTo, int limit) {
+        Criteria criteria = legacyChatRefs.chatIn(chatIds);
+        if (updatedAt != null) {
+            Date at = toDate(updatedAt);
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("updatedAt").gt(at).lte(toDate(upTo)),
+                    Criteria.where("updatedAt").is(at).and("_id").gt(MongoIds.toStoredId(id))));
+        } else {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("updatedAt").lte(toDate(upTo)));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt", "_id"))
+                .limit(limit);
+        query.fields().exclude("participants");
+
+        List<MessageView> views = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, "messages")) {
+            views.add(toView(LegacyMessageChatRefs.chatIdOf(document), document));
+        }
+        return views;
+    }
+
+    @Override
+    public long markSeen(String chatId, String readerId, LocalDateTime upTo) {
+        Query query = Query.query(legacyChatRefs.chatIs(chatId)
+                .and("createdAt").lte(toDate(upTo))
+                .and("senderId").ne(readerId)
+                .and("status").ne(Message.MessageStatus.SEEN.name()));
+        Update update = new Update().set("status", Message.MessageStatus.SEEN.name()).set("updatedAt", new Date());
+        return mongoTemplate.updateMulti(query, update, "messages").getModifiedCount();
+    }
+
+    @Override
+    public long countUnread(String chatId, String readerId, LocalDateTime lastSeenAt) {
+        return mongoTemplate.count(unreadQuery(chatId, readerId, lastSeenAt), "messages");
+    }
+
+    @Override
+    public List<Message> findUnread(String chatId, String readerId, LocalDateTime lastSeenAt) {
+        Query query = unreadQuery(chatId, readerId, lastSeenAt).with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+        List<Message> messages = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, "messages")) {
+            messages.add(mongoTemplate.getConverter().read(Message.class, document));
+        }
+        return messages;
+    }
+
+    private Query unreadQuery(String chatId, String readerId, LocalDateTime lastSeenAt) {
+        Criteria criteria = legacyChatRefs.chatIs(chatId);
+        if (lastSeenAt != null) {
+            criteria = criteria.and("createdAt").gt(toDate(lastSeenAt));
+        } else {
+            criteria = criteria.and("status").ne(Message.MessageStatus.SEEN.name());
+        }
+        return Query.query(criteria.and("senderId").ne(readerId));
+    }
+
+    @Override
+    public List<MessageSearchHitDTO> search(Collection<String> chatIds, String text, LocalDateTime since,
+                                            Double afterScore, String afterId, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        Document match = new Document("$text", new Document("$search", text));
+        match.putAll(legacyChatRefs.chatInDocument(chatIds));
+        // Every candidate is scored and sorted before the keyset applies, so the window bounds that work
+        if (since != null) {
+            match.append("createdAt", new Document("$gte", toDate(since)));
+        }
+        stages.add(Aggregation.stage(new Document("$match", match)));
+        stages.add(Aggregation.stage(new Document("$addFields", new Document("score", new Document("$meta", "textScore")))));
+        if (afterId != null) {
+            stages.add(Aggregation.stage(new Document("$match", new Document("$or", List.of(
+                    new Document("score", new Document("$lt", afterScore)),
+                    new Document("score", afterScore).append("_id", new Document("$lt", MongoIds.toStoredId(afterId))))))));
+        }
+        stages.add(Aggregation.stage(new Document("$sort", new Document("score", -1).append("_id", -1))));
+        stages.add(Aggregation.stage(new Document("$limit", limit)));
+        stages.add(Aggregation.stage(new Document("$project", new Document("chatId", 1).append("chat", 1).append("senderId", 1)
+                .append("senderType", 1).append("content", 1).append("createdAt", 1).append("score", 1))));
+
+        List<MessageSearchHitDTO> hits = new ArrayList<>();
+        for (Document document : mongoTemplate.aggregate(Aggregation.newAggregation(stages), "messages", Document.class)) {
+            Date createdAt = document.getDate("createdAt");
+            String senderType = document.getString("senderType");
+            hits.add(MessageSearchHitDTO.builder()
+                    .messageId(String.valueOf(document.get("_id")))
+                    .chatId(LegacyMessageChatRefs.chatIdOf(document))
+                    .senderId(document.getString("senderId"))
+                    .senderType(senderType != null ? Message.SenderType.valueOf(senderType) : null)
+                    .snippet(document.getString("content"))
+                    .createdAt(createdAt != null ? LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault()) : null)
+                    .score(((Number) document.get("score")).doubleValue())
+                    .build());
+        }
+        return hits;
+    }
+
+    private List<MessageView> find(String chatId, Criteria criteria, Sort.Direction direction, int limit) {
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, "createdAt", "_id"))
+                .limit(limit);
+        query.fields().exclude("chatId", "chat", "participants");
+
+        List<MessageView> views = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, "messages")) {
+            views.add(toView(chatId, document));
+        }
+        return views;
+    }
+
+    private MessageView toView(String chatId, Document document) {
+        Date createdAt = document.getDate("createdAt");
+        Date updatedAt = document.getDate("updatedAt");
+        String senderType = document.getString("senderType");
+        String status = document.getString("status");
+        return MessageView.builder()
+                .id(String.valueOf(document.get("_id")))
+                .chatId(chatId)
+                .senderId(document.getString("senderId"))
+                .senderType(senderType != null ? Message.SenderType.valueOf(senderType) : null)
+                .content(document.getString("content"))
+                .status(status != null ? Message.MessageStatus.valueOf(status) : null)
+                .createdAt(createdAt != null ? LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault()) : null)
+                .updatedAt(updatedAt != null ? LocalDateTime.ofInstant(updatedAt.toInstant(), ZoneId.systemDefault()) : null)
+                .build();
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,14 @@
+package com.eventcraft.EventCraft.repository;
+
+import org.bson.types.ObjectId;
+
+final class MongoIds {
+
+    private MongoIds() {
+    }
+
+    // Generated ids, and the ids inside DBRefs, are stored as ObjectIds
+    static Object toStoredId(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
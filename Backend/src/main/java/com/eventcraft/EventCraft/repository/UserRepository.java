@@ -1,5 +1,6 @@
 package com.eventcraft.EventCraft.repository;
 
+import com.eventcraft.EventCraft.dto.UserSummary;
 import com.eventcraft.EventCraft.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -7,7 +8,11 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
+
+    // Declared here too, so the cached implementation is the only findById(String) callers see
+    @Override
+    Optional<User> findById(String id);
 
     Optional<User> findByUsername(String username);
 
@@ -18,4 +23,7 @@ public interface UserRepository extends MongoRepository<User, String> {
     boolean existsByEmail(String email);
     
     List<User> findByRole(User.Role role);
+
+    // Class projection: only the summary's fields are read
+    List<UserSummary> findAllProjectedBy();
 }
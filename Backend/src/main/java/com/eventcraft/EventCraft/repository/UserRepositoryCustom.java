@@ -0,0 +1,13 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Find one of the users by id, through the EntityCache.
+     */
+    Optional<User> findById(String id);
+}
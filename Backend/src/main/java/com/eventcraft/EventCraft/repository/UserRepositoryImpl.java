@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import com.eventcraft.EventCraft.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+/**
+ * Replaces the derived findById, so every lookup of one of the users by id reads through the EntityCache.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache entityCache;
+
+    @Override
+    public Optional<User> findById(String id) {
+        return CachedFinder.findById(mongoTemplate, entityCache, User.class, id);
+    }
+}
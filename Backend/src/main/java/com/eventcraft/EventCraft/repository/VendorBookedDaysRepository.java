@@ -0,0 +1,19 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.VendorBookedDays;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VendorBookedDaysRepository extends MongoRepository<VendorBookedDays, String>, VendorBookedDaysRepositoryCustom {
+
+    @Query(value = "{ 'vendorId': ?0, 'year': { $gte: ?1, $lte: ?2 } }", sort = "{ 'year': 1 }")
+    List<VendorBookedDays> findYears(String vendorId, int fromYear, int toYear);
+
+    @Query(value = "{ 'vendorId': { $in: ?0 }, 'year': { $gte: ?1, $lte: ?2 } }")
+    List<VendorBookedDays> findYears(Collection<String> vendorIds, int fromYear, int toYear);
+}
@@ -0,0 +1,37 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.Event;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface VendorBookedDaysRepositoryCustom {
+
+    /**
+     * The events a vendor is booked for, through a confirmed assignment or a signed contract.
+     * Only id, name and dates are read.
+     */
+    List<Event> findBookedEvents(String vendorId);
+
+    /**
+     * Vendors with at least one confirmed assignment or signed contract.
+     */
+    Set<String> findVendorIdsWithBookings();
+
+    /**
+     * Vendors booked for an event through a confirmed assignment or a signed contract.
+     */
+    Set<String> findVendorIdsByEvent(String eventId);
+
+    /**
+     * Vendors booked on a day, matched with $bitsAnySet against the bitmap of its year.
+     */
+    Set<String> findVendorIdsBookedOn(LocalDate day);
+
+    /**
+     * Store a vendor's bitmaps by year, and drop the years that are no longer booked.
+     */
+    void replace(String vendorId, Map<Integer, byte[]> years);
+}
@@ -0,0 +1,108 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.Event;
+import com.eventcraft.EventCraft.entity.VendorBookedDays;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Raw reads of the assignments and contracts behind the vendor_booked_days bitmaps. Only the references
+ * are read, and nothing is resolved.
+ */
+@RequiredArgsConstructor
+public class VendorBookedDaysRepositoryImpl implements VendorBookedDaysRepositoryCustom {
+
+    private static final String EVENT_VENDORS = "event_vendors";
+    private static final String CONTRACTS = "contracts";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Event> findBookedEvents(String vendorId) {
+        Object storedId = MongoIds.toStoredId(vendorId);
+        Set<Object> eventIds = new LinkedHashSet<>();
+        eventIds.addAll(referencedIds(Criteria.where("vendor.$id").is(storedId).and("status").is("CONFIRMED"),
+                EVENT_VENDORS, "event"));
+        eventIds.addAll(referencedIds(Criteria.where("vendor.$id").is(storedId).and("signed").is(true),
+                CONTRACTS, "event"));
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("_id").in(eventIds)).with(Sort.by("startDate"));
+        query.fields().include("name", "startDate", "endDate");
+        return mongoTemplate.find(query, Event.class);
+    }
+
+    @Override
+    public Set<String> findVendorIdsWithBookings() {
+        Set<String> vendorIds = new LinkedHashSet<>();
+        referencedIds(Criteria.where("status").is("CONFIRMED"), EVENT_VENDORS, "vendor")
+                .forEach(id -> vendorIds.add(id.toString()));
+        referencedIds(Criteria.where("signed").is(true), CONTRACTS, "vendor")
+                .forEach(id -> vendorIds.add(id.toString()));
+        return vendorIds;
+    }
+
+    @Override
+    public Set<String> findVendorIdsByEvent(String eventId) {
+        Object storedId = MongoIds.toStoredId(eventId);
+        Set<String> vendorIds = new LinkedHashSet<>();
+        referencedIds(Criteria.where("event.$id").is(storedId).and("status").is("CONFIRMED"), EVENT_VENDORS, "vendor")
+                .forEach(id -> vendorIds.add(id.toString()));
+        referencedIds(Criteria.where("event.$id").is(storedId).and("signed").is(true), CONTRACTS, "vendor")
+                .forEach(id -> vendorIds.add(id.toString()));
+        return vendorIds;
+    }
+
+    @Override
+    public Set<String> findVendorIdsBookedOn(LocalDate day) {
+        Query query = Query.query(Criteria.where("year").is(day.getYear())
+                .and("days").bits().anySet(List.of(day.getDayOfYear() - 1)));
+        query.fields().include("vendorId");
+        Set<String> vendorIds = new LinkedHashSet<>();
+        for (Document document : mongoTemplate.find(query, Document.class, "vendor_booked_days")) {
+            vendorIds.add(document.getString("vendorId"));
+        }
+        return vendorIds;
+    }
+
+    @Override
+    public void replace(String vendorId, Map<Integer, byte[]> years) {
+        if (!years.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VendorBookedDays.class);
+            LocalDateTime now = LocalDateTime.now();
+            years.forEach((year, days) -> bulk.upsert(Query.query(Criteria.where("_id").is(vendorId + ":" + year)),
+                    new Update().set("vendorId", vendorId).set("year", year).set("days", days).set("updatedAt", now)));
+            bulk.execute();
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("vendorId").is(vendorId).and("year").nin(years.keySet())),
+                VendorBookedDays.class);
+    }
+
+    // The ids inside one DBRef field of the matching documents
+    private Set<Object> referencedIds(Criteria criteria, String collection, String field) {
+        Query query = Query.query(criteria);
+        query.fields().include(field);
+        Set<Object> ids = new LinkedHashSet<>();
+        for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+            if (document.get(field) instanceof DBRef ref && ref.getId() != null) {
+                ids.add(ref.getId());
+            }
+        }
+        return ids;
+    }
+}
@@ -5,9 +5,15 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface VendorPackageRepository extends MongoRepository<VendorPackage, String> {
+public interface VendorPackageRepository extends MongoRepository<VendorPackage, String>, VendorPackageRepositoryCustom {
+
+    // Declared here too, so the cached implementation is the only findById(String) callers see
+    @Override
+    Optional<VendorPackage> findById(String id);
+
     List<VendorPackage> findByVendor_Id(String vendorId);
     List<VendorPackage> findByVendor_IdAndIsActiveTrue(String vendorId);
 }
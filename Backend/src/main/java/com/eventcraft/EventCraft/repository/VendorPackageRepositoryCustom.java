@@ -0,0 +1,13 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.VendorPackage;
+
+import java.util.Optional;
+
+public interface VendorPackageRepositoryCustom {
+
+    /**
+     * Find one of the vendor packages by id, through the EntityCache.
+     */
+    Optional<VendorPackage> findById(String id);
+}
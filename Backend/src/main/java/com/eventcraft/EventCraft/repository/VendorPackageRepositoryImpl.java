@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import com.eventcraft.EventCraft.entity.VendorPackage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+/**
+ * Replaces the derived findById, so every lookup of one of the vendor packages by id reads through the EntityCache.
+ */
+@RequiredArgsConstructor
+public class VendorPackageRepositoryImpl implements VendorPackageRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache entityCache;
+
+    @Override
+    public Optional<VendorPackage> findById(String id) {
+        return CachedFinder.findById(mongoTemplate, entityCache, VendorPackage.class, id);
+    }
+}
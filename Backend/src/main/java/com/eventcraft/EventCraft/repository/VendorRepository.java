@@ -5,8 +5,15 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface VendorRepository extends MongoRepository<Vendor, String> {
+public interface VendorRepository extends MongoRepository<Vendor, String>, VendorRepositoryCustom {
+
+    // Declared here too, so the cached implementation is the only findById(String) callers see
+    @Override
+    java.util.Optional<Vendor> findById(String id);
+
     boolean existsByUser_Id(String userId);
     java.util.Optional<Vendor> findByUser_Id(String userId);
     java.util.List<Vendor> findByCompanyName(String companyName);
+    java.util.List<Vendor> findByIdNotIn(java.util.Collection<String> ids);
+    long countByIdIn(java.util.Collection<String> ids);
 }
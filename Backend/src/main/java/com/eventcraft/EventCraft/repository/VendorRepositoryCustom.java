@@ -0,0 +1,13 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.entity.Vendor;
+
+import java.util.Optional;
+
+public interface VendorRepositoryCustom {
+
+    /**
+     * Find one of the vendors by id, through the EntityCache.
+     */
+    Optional<Vendor> findById(String id);
+}
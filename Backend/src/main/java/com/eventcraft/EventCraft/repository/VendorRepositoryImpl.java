@@ -0,0 +1,23 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import com.eventcraft.EventCraft.entity.Vendor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+/**
+ * Replaces the derived findById, so every lookup of one of the vendors by id reads through the EntityCache.
+ */
+@RequiredArgsConstructor
+public class VendorRepositoryImpl implements VendorRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCache entityCache;
+
+    @Override
+    public Optional<Vendor> findById(String id) {
+        return CachedFinder.findById(mongoTemplate, entityCache, Vendor.class, id);
+    }
+}
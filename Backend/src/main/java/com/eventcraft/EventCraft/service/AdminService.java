@@ -1,14 +1,16 @@
 package com.eventcraft.EventCraft.service;
 
+import com.eventcraft.EventCraft.dto.MetricComparisonDTO;
 import com.eventcraft.EventCraft.entity.*;
 import com.eventcraft.EventCraft.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,10 +20,12 @@ public class AdminService {
 
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
-    private final ContractRepository contractRepository;
-    private final PaymentRepository paymentRepository;
     private final VendorRepository vendorRepository;
     private final ChatRepository chatRepository;
+    private final DailyMetricsService dailyMetricsService;
+    private final DailyMetricsBackfillJob dailyMetricsBackfillJob;
+    private final VendorLeaderboardService vendorLeaderboardService;
+    private final MetricSeriesService metricSeriesService;
 
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -34,35 +38,46 @@ public class AdminService {
         long totalEvents = eventRepository.count();
         stats.put("totalEvents", totalEvents);
         
-        // Bookings in last 30 days (signed contracts)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minus(30, ChronoUnit.DAYS);
-        List<Contract> allContracts = contractRepository.findAll();
-        long bookings30d = allContracts.stream()
-                .filter(contract -> contract.getCreatedAt() != null && 
-                        contract.getCreatedAt().isAfter(thirtyDaysAgo) &&
-                        contract.getSigned() != null && contract.getSigned())
-                .count();
-        stats.put("bookings30d", bookings30d);
-        
-        // Revenue in last 30 days (completed payments)
-        List<Payment> allPayments = paymentRepository.findAll();
-        double revenue30d = allPayments.stream()
-                .filter(payment -> payment.getPaymentDate() != null &&
-                        payment.getPaymentDate().isAfter(thirtyDaysAgo) &&
-                        payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-                .mapToDouble(p -> p.getAmount() != null ? p.getAmount() : 0.0)
-                .sum();
-        stats.put("revenue30d", revenue30d);
-        
-        // Calculate percentage changes (mock for now, can be enhanced with historical data)
-        stats.put("usersChange", "+5.2%");
-        stats.put("eventsChange", "+1.8%");
-        stats.put("bookingsChange", "-3.1%");
-        stats.put("revenueChange", "+21.3%");
+        // Bookings and revenue over the last 30 days, read from the daily rollup
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(29);
+        DailyMetricsService.Totals last30Days = DailyMetricsService.sum(
+                dailyMetricsService.getDays(windowStart, today), windowStart, today);
+        stats.put("bookings30d", last30Days.getBookings());
+        stats.put("revenue30d", last30Days.getRevenue());
+        
+        // Percentage changes against the previous 30 days, from the metric series
+        Map<String, MetricComparisonDTO> changes = metricSeriesService.compare(
+                List.of(MetricSeriesService.USERS, MetricSeriesService.EVENTS,
+                        MetricSeriesService.BOOKINGS, MetricSeriesService.REVENUE),
+                MetricSeriesService.ComparisonWindow.LAST_30_DAYS, today);
+        stats.put("usersChange", formatChange(changes.get(MetricSeriesService.USERS)));
+        stats.put("eventsChange", formatChange(changes.get(MetricSeriesService.EVENTS)));
+        stats.put("bookingsChange", formatChange(changes.get(MetricSeriesService.BOOKINGS)));
+        stats.put("revenueChange", formatChange(changes.get(MetricSeriesService.REVENUE)));
         
         return stats;
     }
 
+    // Compare metrics over a window (7d, 30d or month) against the window before it
+    public Map<String, MetricComparisonDTO> compareMetrics(List<String> metrics, String window) {
+        List<String> requested = metrics == null || metrics.isEmpty() ? MetricSeriesService.ALL_METRICS : metrics;
+        for (String metric : requested) {
+            if (!MetricSeriesService.ALL_METRICS.contains(metric)) {
+                throw new RuntimeException("Unknown metric: " + metric);
+            }
+        }
+        return metricSeriesService.compare(requested, MetricSeriesService.ComparisonWindow.fromParam(window), LocalDate.now());
+    }
+
+    private String formatChange(MetricComparisonDTO comparison) {
+        return String.format(Locale.ROOT, "%+.1f%%", comparison.getChangePercent());
+    }
+
+    public int rebuildDailyMetrics() {
+        return dailyMetricsBackfillJob.rebuild();
+    }
+
     public List<Vendor> getPendingVendors() {
         return vendorRepository.findAll().stream()
                 .filter(vendor -> vendor.getApprovalStatus() == Vendor.ApprovalStatus.PENDING)
@@ -77,7 +92,9 @@ public class AdminService {
         Vendor vendor = vendorOpt.get();
         vendor.setApprovalStatus(Vendor.ApprovalStatus.APPROVED);
         vendor.setUpdatedAt(LocalDateTime.now());
-        return vendorRepository.save(vendor);
+        Vendor savedVendor = vendorRepository.save(vendor);
+        vendorLeaderboardService.invalidate();
+        return savedVendor;
     }
 
     public Vendor rejectVendor(String vendorId) {
@@ -88,7 +105,9 @@ public class AdminService {
         Vendor vendor = vendorOpt.get();
         vendor.setApprovalStatus(Vendor.ApprovalStatus.REJECTED);
         vendor.setUpdatedAt(LocalDateTime.now());
-        return vendorRepository.save(vendor);
+        Vendor savedVendor = vendorRepository.save(vendor);
+        vendorLeaderboardService.invalidate();
+        return savedVendor;
     }
 
     // Get all support chats (system chats)
@@ -105,193 +124,69 @@ public class AdminService {
 
     // Get best vendors (top rated, most bookings, etc.)
     public List<Map<String, Object>> getBestVendors() {
-        List<Vendor> allVendors = vendorRepository.findAll().stream()
-                .filter(v -> v.getApprovalStatus() == Vendor.ApprovalStatus.APPROVED)
-                .toList();
-
-        return allVendors.stream()
-                .map(vendor -> {
-                    Map<String, Object> vendorData = new HashMap<>();
-                    vendorData.put("id", vendor.getId());
-                    vendorData.put("companyName", vendor.getCompanyName());
-                    vendorData.put("serviceType", vendor.getServiceType());
-                    vendorData.put("rating", vendor.getRating() != null ? vendor.getRating() : 0.0);
-                    vendorData.put("address", vendor.getAddress());
-                    vendorData.put("mainPhotoURL", vendor.getMainPhotoURL());
-                    
-                    // Count contracts for this vendor
-                    long contractCount = contractRepository.findAll().stream()
-                            .filter(contract -> contract.getVendor() != null && 
-                                   contract.getVendor().getId().equals(vendor.getId()) &&
-                                   contract.getSigned() != null && contract.getSigned())
-                            .count();
-                    vendorData.put("totalBookings", contractCount);
-                    
-                    // Calculate revenue for this vendor
-                    double revenue = paymentRepository.findAll().stream()
-                            .filter(payment -> payment.getContract() != null &&
-                                   payment.getContract().getVendor() != null &&
-                                   payment.getContract().getVendor().getId().equals(vendor.getId()) &&
-                                   payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-                            .mapToDouble(p -> p.getAmount() != null ? p.getAmount() : 0.0)
-                            .sum();
-                    vendorData.put("totalRevenue", revenue);
-                    
-                    return vendorData;
-                })
-                .sorted((a, b) -> {
-                    // Sort by rating first, then by bookings
-                    Double ratingA = (Double) a.get("rating");
-                    Double ratingB = (Double) b.get("rating");
-                    int ratingCompare = ratingB.compareTo(ratingA);
-                    if (ratingCompare != 0) return ratingCompare;
-                    
-                    Long bookingsA = (Long) a.get("totalBookings");
-                    Long bookingsB = (Long) b.get("totalBookings");
-                    return bookingsB.compareTo(bookingsA);
-                })
-                .limit(10) // Top 10 vendors
-                .toList();
+        return vendorLeaderboardService.getLeaderboard();
     }
 
     // Get growth and analytics report
     public Map<String, Object> getGrowthReport() {
         Map<String, Object> report = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime thirtyDaysAgo = now.minus(30, ChronoUnit.DAYS);
-        LocalDateTime sixtyDaysAgo = now.minus(60, ChronoUnit.DAYS);
+        LocalDate today = LocalDate.now();
+        LocalDate last30Start = today.minusDays(29);
+        LocalDate previous30Start = today.minusDays(59);
+        LocalDate previous30End = today.minusDays(30);
         
-        // User growth
-        long totalUsers = userRepository.count();
-        long usersLast30Days = userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt() != null && user.getCreatedAt().isAfter(thirtyDaysAgo))
-                .count();
-        long usersPrevious30Days = userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt() != null && 
-                       user.getCreatedAt().isAfter(sixtyDaysAgo) && 
-                       user.getCreatedAt().isBefore(thirtyDaysAgo))
-                .count();
-        double userGrowthRate = usersPrevious30Days > 0 ? 
-                ((double)(usersLast30Days - usersPrevious30Days) / usersPrevious30Days) * 100 : 0;
+        // One read covers both comparison windows and the three-month breakdown
+        List<AdminDailyMetrics> days = dailyMetricsService.getDays(today.minusDays(89), today);
+        DailyMetricsService.Totals last30 = DailyMetricsService.sum(days, last30Start, today);
+        DailyMetricsService.Totals previous30 = DailyMetricsService.sum(days, previous30Start, previous30End);
         
-        report.put("totalUsers", totalUsers);
-        report.put("usersLast30Days", usersLast30Days);
-        report.put("usersPrevious30Days", usersPrevious30Days);
-        report.put("userGrowthRate", Math.round(userGrowthRate * 100.0) / 100.0);
+        // User growth
+        report.put("totalUsers", userRepository.count());
+        report.put("usersLast30Days", last30.getNewUsers());
+        report.put("usersPrevious30Days", previous30.getNewUsers());
+        report.put("userGrowthRate", growthRate(last30.getNewUsers(), previous30.getNewUsers()));
         
         // Vendor growth
-        long totalVendors = vendorRepository.count();
-        long vendorsLast30Days = vendorRepository.findAll().stream()
-                .filter(vendor -> vendor.getCreatedAt() != null && vendor.getCreatedAt().isAfter(thirtyDaysAgo))
-                .count();
-        long vendorsPrevious30Days = vendorRepository.findAll().stream()
-                .filter(vendor -> vendor.getCreatedAt() != null && 
-                       vendor.getCreatedAt().isAfter(sixtyDaysAgo) && 
-                       vendor.getCreatedAt().isBefore(thirtyDaysAgo))
-                .count();
-        double vendorGrowthRate = vendorsPrevious30Days > 0 ? 
-                ((double)(vendorsLast30Days - vendorsPrevious30Days) / vendorsPrevious30Days) * 100 : 0;
-        
-        report.put("totalVendors", totalVendors);
-        report.put("vendorsLast30Days", vendorsLast30Days);
-        report.put("vendorsPrevious30Days", vendorsPrevious30Days);
-        report.put("vendorGrowthRate", Math.round(vendorGrowthRate * 100.0) / 100.0);
+        report.put("totalVendors", vendorRepository.count());
+        report.put("vendorsLast30Days", last30.getNewVendors());
+        report.put("vendorsPrevious30Days", previous30.getNewVendors());
+        report.put("vendorGrowthRate", growthRate(last30.getNewVendors(), previous30.getNewVendors()));
         
         // Event growth
-        long totalEvents = eventRepository.count();
-        long eventsLast30Days = eventRepository.findAll().stream()
-                .filter(event -> event.getCreatedAt() != null && event.getCreatedAt().isAfter(thirtyDaysAgo))
-                .count();
-        long eventsPrevious30Days = eventRepository.findAll().stream()
-                .filter(event -> event.getCreatedAt() != null && 
-                       event.getCreatedAt().isAfter(sixtyDaysAgo) && 
-                       event.getCreatedAt().isBefore(thirtyDaysAgo))
-                .count();
-        double eventGrowthRate = eventsPrevious30Days > 0 ? 
-                ((double)(eventsLast30Days - eventsPrevious30Days) / eventsPrevious30Days) * 100 : 0;
-        
-        report.put("totalEvents", totalEvents);
-        report.put("eventsLast30Days", eventsLast30Days);
-        report.put("eventsPrevious30Days", eventsPrevious30Days);
-        report.put("eventGrowthRate", Math.round(eventGrowthRate * 100.0) / 100.0);
+        report.put("totalEvents", eventRepository.count());
+        report.put("eventsLast30Days", last30.getNewEvents());
+        report.put("eventsPrevious30Days", previous30.getNewEvents());
+        report.put("eventGrowthRate", growthRate(last30.getNewEvents(), previous30.getNewEvents()));
         
         // Booking growth
-        List<Contract> allContracts = contractRepository.findAll();
-        long bookingsLast30Days = allContracts.stream()
-                .filter(contract -> contract.getCreatedAt() != null && 
-                       contract.getCreatedAt().isAfter(thirtyDaysAgo) &&
-                       contract.getSigned() != null && contract.getSigned())
-                .count();
-        long bookingsPrevious30Days = allContracts.stream()
-                .filter(contract -> contract.getCreatedAt() != null && 
-                       contract.getCreatedAt().isAfter(sixtyDaysAgo) && 
-                       contract.getCreatedAt().isBefore(thirtyDaysAgo) &&
-                       contract.getSigned() != null && contract.getSigned())
-                .count();
-        double bookingGrowthRate = bookingsPrevious30Days > 0 ? 
-                ((double)(bookingsLast30Days - bookingsPrevious30Days) / bookingsPrevious30Days) * 100 : 0;
-        
-        report.put("bookingsLast30Days", bookingsLast30Days);
-        report.put("bookingsPrevious30Days", bookingsPrevious30Days);
-        report.put("bookingGrowthRate", Math.round(bookingGrowthRate * 100.0) / 100.0);
+        report.put("bookingsLast30Days", last30.getBookings());
+        report.put("bookingsPrevious30Days", previous30.getBookings());
+        report.put("bookingGrowthRate", growthRate(last30.getBookings(), previous30.getBookings()));
         
         // Revenue growth
-        List<Payment> allPayments = paymentRepository.findAll();
-        double revenueLast30Days = allPayments.stream()
-                .filter(payment -> payment.getPaymentDate() != null &&
-                       payment.getPaymentDate().isAfter(thirtyDaysAgo) &&
-                       payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-                .mapToDouble(p -> p.getAmount() != null ? p.getAmount() : 0.0)
-                .sum();
-        double revenuePrevious30Days = allPayments.stream()
-                .filter(payment -> payment.getPaymentDate() != null &&
-                       payment.getPaymentDate().isAfter(sixtyDaysAgo) &&
-                       payment.getPaymentDate().isBefore(thirtyDaysAgo) &&
-                       payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-                .mapToDouble(p -> p.getAmount() != null ? p.getAmount() : 0.0)
-                .sum();
-        double revenueGrowthRate = revenuePrevious30Days > 0 ? 
-                ((revenueLast30Days - revenuePrevious30Days) / revenuePrevious30Days) * 100 : 0;
-        
-        report.put("revenueLast30Days", revenueLast30Days);
-        report.put("revenuePrevious30Days", revenuePrevious30Days);
-        report.put("revenueGrowthRate", Math.round(revenueGrowthRate * 100.0) / 100.0);
+        report.put("revenueLast30Days", last30.getRevenue());
+        report.put("revenuePrevious30Days", previous30.getRevenue());
+        report.put("revenueGrowthRate", growthRate(last30.getRevenue(), previous30.getRevenue()));
         
-        // Monthly breakdown for last 3 months
+        // Monthly breakdown for last 3 months (month1 is the most recent 30 days)
         Map<String, Object> monthlyData = new HashMap<>();
-        for (int monthIndex = 0; monthIndex < 3; monthIndex++) {
-            final int i = monthIndex;
-            LocalDateTime monthStart = now.minus(i * 30, ChronoUnit.DAYS);
-            LocalDateTime monthEnd = i == 0 ? now : now.minus((i - 1) * 30, ChronoUnit.DAYS);
-            
-            long monthUsers = userRepository.findAll().stream()
-                    .filter(user -> user.getCreatedAt() != null && 
-                           user.getCreatedAt().isAfter(monthStart) && 
-                           (i == 0 || user.getCreatedAt().isBefore(monthEnd)))
-                    .count();
-            long monthBookings = allContracts.stream()
-                    .filter(contract -> contract.getCreatedAt() != null && 
-                           contract.getCreatedAt().isAfter(monthStart) && 
-                           (i == 0 || contract.getCreatedAt().isBefore(monthEnd)) &&
-                           contract.getSigned() != null && contract.getSigned())
-                    .count();
-            double monthRevenue = allPayments.stream()
-                    .filter(payment -> payment.getPaymentDate() != null &&
-                           payment.getPaymentDate().isAfter(monthStart) && 
-                           (i == 0 || payment.getPaymentDate().isBefore(monthEnd)) &&
-                           payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-                    .mapToDouble(p -> p.getAmount() != null ? p.getAmount() : 0.0)
-                    .sum();
+        for (int i = 0; i < 3; i++) {
+            LocalDate monthEnd = today.minusDays(i * 30L);
+            LocalDate monthStart = monthEnd.minusDays(29);
+            DailyMetricsService.Totals month = DailyMetricsService.sum(days, monthStart, monthEnd);
             
             Map<String, Object> monthData = new HashMap<>();
-            monthData.put("users", monthUsers);
-            monthData.put("bookings", monthBookings);
-            monthData.put("revenue", monthRevenue);
+            monthData.put("users", month.getNewUsers());
+            monthData.put("bookings", month.getBookings());
+            monthData.put("revenue", month.getRevenue());
             monthlyData.put("month" + (i + 1), monthData);
         }
         report.put("monthlyBreakdown", monthlyData);
         
         return report;
     }
-}
 
+    private double growthRate(double current, double previous) {
+        return MetricSeriesService.changePercent(current, previous);
+    }
+}
@@ -0,0 +1,52 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.ChatParticipants;
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.repository.ChatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sends the vendor's automated acknowledgement after a user message, off the request thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutomatedReplyService {
+
+    static final String AUTOMATED_MESSAGE = "Thank you for your message. We will contact you soon.";
+
+    private final MessageWriteBehind messageWriteBehind;
+    private final ChatRepository chatRepository;
+    private final RealtimePublisher realtimePublisher;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    public void replyAsVendor(Chat chat) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Message automatedReply = Message.builder()
+                    .chatId(chat.getId())
+                    .participants(ChatParticipants.of(chat))
+                    .senderId(chat.getVendor().getId())
+                    .senderType(Message.SenderType.VENDOR)
+                    .content(AUTOMATED_MESSAGE)
+                    .status(Message.MessageStatus.SENT)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+
+            Message savedReply = messageWriteBehind.insert(automatedReply);
+            chatRepository.updateLastMessage(chat.getId(), null, null, AUTOMATED_MESSAGE, now);
+            realtimePublisher.messageCreated(chat, savedReply);
+        } catch (RuntimeException e) {
+            // The user's message is already stored; only the acknowledgement is lost
+            log.warn("Failed to send automated reply in chat {}: {}", chat.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.eventcraft.EventCraft.service;
 
+import com.eventcraft.EventCraft.dto.AvailabilityIntersectionDTO;
 import com.eventcraft.EventCraft.dto.CalendarAvailabilityDTO;
 import com.eventcraft.EventCraft.dto.DateSelectionDTO;
 import com.eventcraft.EventCraft.entity.Event;
 import com.eventcraft.EventCraft.repository.EventRepository;
+import com.eventcraft.EventCraft.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CalendarService {
 
+    // Latest date that can be selected, in days from today
+    static final int MAX_DAYS_AHEAD = 730;
+
+    // Vendors one availability intersection may include
+    static final int MAX_INTERSECTION_VENDORS = 50;
+
     private final EventRepository eventRepository;
+    private final VendorRepository vendorRepository;
+    private final VendorAvailabilityService vendorAvailabilityService;
+
+    @Value("${eventcraft.calendar.suggestion-horizon-days:365}")
+    private int suggestionHorizonDays;
 
     /**
      * Check if a specific date is available for a user
@@ -26,13 +42,8 @@ public class CalendarService {
         String userId = dateSelection.getUserId();
         LocalDate selectedDate = dateSelection.getSelectedDate();
         
-        // Get all events for the user
-        List<Event> userEvents = eventRepository.findByUserId(userId);
-        
-        // Check for conflicts
-        List<Event> conflictingEvents = userEvents.stream()
-                .filter(event -> isDateInRange(selectedDate, event.getStartDate(), event.getEndDate()))
-                .collect(Collectors.toList());
+        // Only the user's events that cover the selected date
+        List<Event> conflictingEvents = eventRepository.findOverlapping(userId, selectedDate, selectedDate);
         
         DateSelectionDTO response = DateSelectionDTO.builder()
                 .eventId(dateSelection.getEventId())
@@ -58,38 +69,28 @@ public class CalendarService {
      * Get available dates for a user within a date range
      */
     public CalendarAvailabilityDTO getAvailableDates(String userId, LocalDate startDate, LocalDate endDate) {
-        List<Event> userEvents = eventRepository.findByUserId(userId);
+        // One indexed read of the events overlapping the range, then a single sweep over its days
+        EventIntervals intervals = new EventIntervals(eventRepository.findOverlapping(userId, startDate, endDate));
         
         List<LocalDate> availableDates = new ArrayList<>();
         List<LocalDate> unavailableDates = new ArrayList<>();
         List<CalendarAvailabilityDTO.EventDateConflict> conflicts = new ArrayList<>();
         
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            boolean isAvailable = true;
-            
-            for (Event event : userEvents) {
-                if (isDateInRange(currentDate, event.getStartDate(), event.getEndDate())) {
-                    isAvailable = false;
-                    unavailableDates.add(currentDate);
-                    
-                    // Add conflict information
-                    conflicts.add(CalendarAvailabilityDTO.EventDateConflict.builder()
-                            .eventId(event.getId())
-                            .eventName(event.getName())
-                            .conflictDate(currentDate)
-                            .conflictType("OVERLAP")
-                            .build());
-                    break;
-                }
+        intervals.sweep(startDate, endDate, (date, event) -> {
+            if (event == null) {
+                availableDates.add(date);
+                return;
             }
+            unavailableDates.add(date);
             
-            if (isAvailable) {
-                availableDates.add(currentDate);
-            }
-            
-            currentDate = currentDate.plusDays(1);
-        }
+            // Add conflict information
+            conflicts.add(CalendarAvailabilityDTO.EventDateConflict.builder()
+                    .eventId(event.getId())
+                    .eventName(event.getName())
+                    .conflictDate(date)
+                    .conflictType("OVERLAP")
+                    .build());
+        });
         
         return CalendarAvailabilityDTO.builder()
                 .userId(userId)
@@ -123,7 +124,7 @@ public class CalendarService {
         }
         
         // Check if date is too far in the future (more than 2 years)
-        if (ChronoUnit.DAYS.between(today, selectedDate) > 730) {
+        if (ChronoUnit.DAYS.between(today, selectedDate) > MAX_DAYS_AHEAD) {
             return DateSelectionDTO.builder()
                     .eventId(dateSelection.getEventId())
                     .selectedDate(selectedDate)
@@ -139,51 +140,103 @@ public class CalendarService {
     }
 
     /**
-     * Get suggested dates based on user preferences
+     * Get suggested dates based on user preferences.
+     * The events of the whole search window are read once and their days marked in a bitmap, which is then
+     * searched outward from the preferred date (same day, one after, one before, two after, ...).
      */
     public List<LocalDate> getSuggestedDates(String userId, LocalDate preferredDate, int numberOfSuggestions) {
-        List<LocalDate> suggestions = new ArrayList<>();
         LocalDate today = LocalDate.now();
         
-        // Start from preferred date and look for available dates
-        LocalDate searchDate = preferredDate;
-        int daysToSearch = 30; // Search within 30 days
+        // Never suggest a past date, or one further out than a date selection may be
+        LocalDate windowStart = max(preferredDate.minusDays(suggestionHorizonDays), today);
+        LocalDate windowEnd = min(preferredDate.plusDays(suggestionHorizonDays), today.plusDays(MAX_DAYS_AHEAD));
+        if (windowEnd.isBefore(windowStart) || numberOfSuggestions <= 0) {
+            return new ArrayList<>();
+        }
         
-        for (int i = 0; i < daysToSearch && suggestions.size() < numberOfSuggestions; i++) {
-            DateSelectionDTO dateCheck = DateSelectionDTO.builder()
-                    .userId(userId)
-                    .selectedDate(searchDate)
-                    .build();
-            
-            DateSelectionDTO result = checkDateAvailability(dateCheck);
-            if (result.getIsDateAvailable()) {
-                suggestions.add(searchDate);
-            }
-            
-            // Try dates before and after the preferred date
-            if (i % 2 == 0) {
-                searchDate = preferredDate.plusDays((i / 2) + 1);
-            } else {
-                searchDate = preferredDate.minusDays((i / 2) + 1);
-            }
-            
-            // Make sure we don't go into the past
-            if (searchDate.isBefore(today)) {
-                searchDate = today.plusDays(1);
+        return freeDaysOutward(getBusyDays(userId, windowStart, windowEnd), preferredDate, suggestionHorizonDays, numberOfSuggestions);
+    }
+
+    /**
+     * Up to count days within the bitmap's range that are clear, nearest to the preferred date first:
+     * the same day, one after, one before, two after, ... up to horizon days either side.
+     */
+    static List<LocalDate> freeDaysOutward(DayBitmap busy, LocalDate preferredDate, int horizon, int count) {
+        List<LocalDate> suggestions = new ArrayList<>();
+        for (int offset = 0; offset <= horizon && suggestions.size() < count; offset++) {
+            addIfFree(suggestions, busy, preferredDate.plusDays(offset));
+            if (offset > 0 && suggestions.size() < count) {
+                addIfFree(suggestions, busy, preferredDate.minusDays(offset));
             }
         }
-        
         return suggestions;
     }
 
     /**
-     * Helper method to check if a date falls within a date range
+     * Get the days within a range on which the user and every given vendor are free.
+     * Each party's busy days become a bitmap over the range, the user's from one overlap query and all the
+     * vendors' from one read of their booked-days index. The bitmaps are OR-ed a word at a time, so the days
+     * left clear are the ones free for everybody (the AND of the free days).
      */
-    private boolean isDateInRange(LocalDate date, LocalDate startDate, LocalDate endDate) {
-        if (startDate == null || endDate == null) {
-            return false;
+    public AvailabilityIntersectionDTO getCommonAvailability(AvailabilityIntersectionDTO request) {
+        String userId = request.getUserId();
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (userId == null || userId.isBlank() || startDate == null || endDate == null) {
+            throw new RuntimeException("userId, startDate and endDate are required");
         }
-        return !date.isBefore(startDate) && !date.isAfter(endDate);
+        VendorAvailabilityService.validateRange(startDate, endDate);
+        
+        Set<String> vendorIds = new LinkedHashSet<>();
+        if (request.getVendorIds() != null) {
+            request.getVendorIds().stream().filter(id -> id != null && !id.isBlank()).forEach(vendorIds::add);
+        }
+        if (vendorIds.size() > MAX_INTERSECTION_VENDORS) {
+            throw new RuntimeException("At most " + MAX_INTERSECTION_VENDORS + " vendors can be compared at once");
+        }
+        if (!vendorIds.isEmpty() && vendorRepository.countByIdIn(vendorIds) != vendorIds.size()) {
+            throw new RuntimeException("One or more vendors were not found");
+        }
+        
+        DayBitmap busy = getBusyDays(userId, startDate, endDate);
+        if (!vendorIds.isEmpty()) {
+            vendorAvailabilityService.getBookedDays(vendorIds, startDate, endDate).values().forEach(busy::or);
+        }
+        
+        return AvailabilityIntersectionDTO.builder()
+                .userId(userId)
+                .vendorIds(vendorIds)
+                .startDate(startDate)
+                .endDate(endDate)
+                .availableDates(busy.days(false))
+                .message("Common availability retrieved successfully")
+                .success(true)
+                .build();
+    }
+
+    // The days covered by the user's events, from one overlap query
+    private DayBitmap getBusyDays(String userId, LocalDate from, LocalDate to) {
+        DayBitmap busy = new DayBitmap(from, to);
+        for (Event event : eventRepository.findOverlapping(userId, from, to)) {
+            if (event.getStartDate() != null && event.getEndDate() != null) {
+                busy.set(event.getStartDate(), event.getEndDate());
+            }
+        }
+        return busy;
+    }
+
+    private static void addIfFree(List<LocalDate> suggestions, DayBitmap busy, LocalDate date) {
+        if (busy.contains(date) && !busy.get(date)) {
+            suggestions.add(date);
+        }
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
     }
 
     /**
@@ -0,0 +1,167 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.repository.ChatPairKeyIndex;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Gives every chat its pairKey and merges chats created twice for the same participants.
+ * Messages of a duplicate are moved to the oldest chat of its key, which also takes the latest
+ * last message and the latest read watermarks; the duplicates are then deleted.
+ * The unique pairKey index is only created afterwards, since it cannot be built over duplicates, so until it
+ * exists this runs on every start, and chat lookups and creation fall back on participants (ChatPairKeyIndex).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatPairKeyMigration {
+
+    private static final String CHATS = "chats";
+
+    // Held while messages are moved between chats, here and by MessageChatIdMigration
+    static final Object LOCK = new Object();
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatPairKeyIndex pairKeyIndex;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        try {
+            // Once the index exists the only chats left to key are ones written by instances without pair keys
+            if (!hasPairKeyIndex() || mongoTemplate.exists(Query.query(Criteria.where("pairKey").exists(false)), CHATS)) {
+                int merged;
+                synchronized (LOCK) {
+                    merged = migrate();
+                }
+                log.info("Assigned chat pair keys, merged {} duplicate chats", merged);
+            }
+            mongoTemplate.indexOps(CHATS).ensureIndex(new Index().on("pairKey", Sort.Direction.ASC)
+                    .named("pairKey").unique().sparse());
+            pairKeyIndex.markReady();
+            eventPublisher.publishEvent(new ChatPairKeysMigratedEvent());
+        } catch (RuntimeException e) {
+            log.warn("Chat pair key migration failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of duplicate chats merged away.
+     */
+    public int migrate() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+        query.fields().include("pairKey", "vendor", "user", "vendor2", "isSystemChat", "lastMessage", "lastMessageAt", "lastSeenAt");
+
+        // Oldest first, so the first chat of each key is the survivor unless another one already owns the key
+        Map<String, List<Document>> chatsByKey = new LinkedHashMap<>();
+        try (var chats = mongoTemplate.stream(query, Document.class, CHATS)) {
+            chats.forEach(chat -> {
+                String key = ChatPairKeys.of(Boolean.TRUE.equals(chat.getBoolean("isSystemChat")),
+                        refId(chat, "vendor"), refId(chat, "user"), refId(chat, "vendor2"));
+                if (key != null) {
+                    chatsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(chat);
+                }
+            });
+        }
+
+        BulkOperations chatUpdates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CHATS);
+        List<Object> duplicateIds = new ArrayList<>();
+        boolean pending = false;
+        for (Map.Entry<String, List<Document>> entry : chatsByKey.entrySet()) {
+            String key = entry.getKey();
+            List<Document> chats = entry.getValue();
+            Document survivor = chats.stream()
+                    .filter(chat -> key.equals(chat.getString("pairKey")))
+                    .findFirst()
+                    .orElse(chats.get(0));
+
+            Update update = new Update();
+            boolean changed = !key.equals(survivor.getString("pairKey"));
+            update.set("pairKey", key);
+
+            if (chats.size() > 1) {
+                List<Object> duplicates = new ArrayList<>();
+                Document latest = survivor;
+                Map<String, Date> lastSeenAt = new HashMap<>();
+                for (Document chat : chats) {
+                    if (chat != survivor) {
+                        duplicates.add(chat.get("_id"));
+                    }
+                    if (isAfter(chat.getDate("lastMessageAt"), latest.getDate("lastMessageAt"))) {
+                        latest = chat;
+                    }
+                    Document seen = chat.get("lastSeenAt", Document.class);
+                    if (seen != null) {
+                        seen.forEach((participantId, at) -> {
+                            if (at instanceof Date date) {
+                                lastSeenAt.merge(participantId, date, (a, b) -> a.after(b) ? a : b);
+                            }
+                        });
+                    }
+                }
+                if (latest != survivor) {
+                    update.set("lastMessage", latest.getString("lastMessage"))
+                            .set("lastMessageAt", latest.getDate("lastMessageAt"));
+                }
+                lastSeenAt.forEach((participantId, at) -> update.set("lastSeenAt." + participantId, at));
+
+                // Messages not yet given a chatId still carry the legacy chat reference
+                mongoTemplate.updateMulti(Query.query(Criteria.where("chat.$id").in(duplicates)),
+                        new Update().set("chat", new DBRef(CHATS, survivor.get("_id"))).set("updatedAt", new Date()), "messages");
+                mongoTemplate.updateMulti(Query.query(Criteria.where("chatId").in(duplicates.stream().map(Object::toString).toList())),
+                        new Update().set("chatId", survivor.get("_id").toString()).set("updatedAt", new Date())
+                                .set("participants", new Document("vendorId", refId(survivor, "vendor"))
+                                        .append("userId", refId(survivor, "user"))
+                                        .append("vendor2Id", refId(survivor, "vendor2"))), "messages");
+                duplicateIds.addAll(duplicates);
+                changed = true;
+            }
+
+            if (changed) {
+                chatUpdates.updateOne(Query.query(Criteria.where("_id").is(survivor.get("_id"))), update);
+                pending = true;
+            }
+        }
+
+        // Survivors first: if this stops part way, the duplicates are still there to merge on the next start
+        if (pending) {
+            chatUpdates.execute();
+        }
+        if (!duplicateIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(duplicateIds)), CHATS);
+        }
+        return duplicateIds.size();
+    }
+
+    private boolean hasPairKeyIndex() {
+        return mongoTemplate.indexOps(CHATS).getIndexInfo().stream()
+                .anyMatch(index -> "pairKey".equals(index.getName()) && index.isUnique());
+    }
+
+    private static boolean isAfter(Date candidate, Date current) {
+        return candidate != null && (current == null || candidate.after(current));
+    }
+
+    private static String refId(Document chat, String field) {
+        Object ref = chat.get(field);
+        return ref instanceof DBRef dbRef && dbRef.getId() != null ? dbRef.getId().toString() : null;
+    }
+}
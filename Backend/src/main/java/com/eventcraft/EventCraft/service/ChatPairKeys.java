@@ -0,0 +1,48 @@
+package com.eventcraft.EventCraft.service;
+
+/**
+ * Canonical keys identifying the participants of a chat, stored in Chat.pairKey under a unique index.
+ * Vendor-to-vendor keys sort the two ids, so both directions map to the same chat.
+ */
+public final class ChatPairKeys {
+
+    private ChatPairKeys() {
+    }
+
+    public static String vendorUser(String vendorId, String userId) {
+        return "VU:" + vendorId + ":" + userId;
+    }
+
+    public static String vendorVendor(String vendorId, String vendor2Id) {
+        return vendorId.compareTo(vendor2Id) <= 0
+                ? "VV:" + vendorId + ":" + vendor2Id
+                : "VV:" + vendor2Id + ":" + vendorId;
+    }
+
+    public static String userSupport(String userId) {
+        return "SYS:U:" + userId;
+    }
+
+    public static String vendorSupport(String vendorId) {
+        return "SYS:V:" + vendorId;
+    }
+
+    /**
+     * Key of an existing chat from its participant ids, or null when it has too few participants.
+     */
+    public static String of(boolean systemChat, String vendorId, String userId, String vendor2Id) {
+        if (systemChat) {
+            if (userId != null) {
+                return userSupport(userId);
+            }
+            return vendorId != null ? vendorSupport(vendorId) : null;
+        }
+        if (vendorId == null) {
+            return null;
+        }
+        if (vendor2Id != null) {
+            return vendorVendor(vendorId, vendor2Id);
+        }
+        return userId != null ? vendorUser(vendorId, userId) : null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.eventcraft.EventCraft.service;
+
+/**
+ * Published once every chat has its pairKey and the unique index exists.
+ */
+public class ChatPairKeysMigratedEvent {
+}
@@ -1,14 +1,17 @@
 package com.eventcraft.EventCraft.service;
 
 import com.eventcraft.EventCraft.dto.ChatDTO;
+import com.eventcraft.EventCraft.dto.InboxChatDTO;
+import com.eventcraft.EventCraft.dto.InboxPageDTO;
 import com.eventcraft.EventCraft.entity.Chat;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.entity.Vendor;
 import com.eventcraft.EventCraft.repository.ChatRepository;
+import com.eventcraft.EventCraft.repository.DbRefBatchLoader;
 import com.eventcraft.EventCraft.repository.UserRepository;
 import com.eventcraft.EventCraft.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,7 +25,14 @@ public class ChatService {
     private final ChatRepository chatRepository;
     private final VendorRepository vendorRepository;
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final SupportIdentityService supportIdentityService;
+    private final DbRefBatchLoader dbRefBatchLoader;
+
+    @Value("${eventcraft.chats.inbox-page-size-default:30}")
+    private int defaultInboxPageSize;
+
+    @Value("${eventcraft.chats.inbox-page-size-max:100}")
+    private int maxInboxPageSize;
 
     public Chat createOrGetChat(ChatDTO chatDTO) {
         // Determine if this is a vendor-to-vendor or vendor-to-user chat
@@ -34,19 +44,9 @@ public class ChatService {
                 throw new RuntimeException("Both vendor IDs are required for vendor-to-vendor chat");
             }
             
-            // Check if chat already exists (check both directions)
-            Optional<Chat> existingChat = chatRepository.findByVendor_IdAndVendor2_Id(
-                    chatDTO.getVendorId(), 
-                    chatDTO.getVendor2Id()
-            );
-            
-            if (existingChat.isEmpty()) {
-                existingChat = chatRepository.findByVendor2_IdAndVendor_Id(
-                        chatDTO.getVendorId(), 
-                        chatDTO.getVendor2Id()
-                );
-            }
-            
+            // The pair key is the same in both directions, so one indexed lookup finds an existing chat
+            String pairKey = ChatPairKeys.vendorVendor(chatDTO.getVendorId(), chatDTO.getVendor2Id());
+            Optional<Chat> existingChat = chatRepository.findByPairKey(pairKey, false, chatDTO.getVendorId(), null, chatDTO.getVendor2Id());
             if (existingChat.isPresent()) {
                 return existingChat.get();
             }
@@ -57,8 +57,9 @@ public class ChatService {
             Vendor vendor2 = vendorRepository.findById(chatDTO.getVendor2Id())
                     .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + chatDTO.getVendor2Id()));
             
-            // Create new vendor-to-vendor chat
+            // Create new vendor-to-vendor chat, unless a concurrent request already did
             Chat chat = Chat.builder()
+                    .pairKey(pairKey)
                     .vendor(vendor1)
                     .vendor2(vendor2)
                     .user(null)
@@ -66,7 +67,7 @@ public class ChatService {
                     .updatedAt(LocalDateTime.now())
                     .build();
             
-            return chatRepository.save(chat);
+            return chatRepository.upsertByPairKey(chat);
         } else {
             // Vendor-to-user chat (existing logic)
             if (chatDTO.getVendorId() == null || chatDTO.getUserId() == null) {
@@ -74,10 +75,8 @@ public class ChatService {
             }
             
             // Check if chat already exists
-            Optional<Chat> existingChat = chatRepository.findByVendor_IdAndUser_Id(
-                    chatDTO.getVendorId(), 
-                    chatDTO.getUserId()
-            );
+            String pairKey = ChatPairKeys.vendorUser(chatDTO.getVendorId(), chatDTO.getUserId());
+            Optional<Chat> existingChat = chatRepository.findByPairKey(pairKey, false, chatDTO.getVendorId(), chatDTO.getUserId(), null);
 
             if (existingChat.isPresent()) {
                 return existingChat.get();
@@ -90,8 +89,9 @@ public class ChatService {
             User user = userRepository.findById(chatDTO.getUserId())
                     .orElseThrow(() -> new RuntimeException("User not found with id: " + chatDTO.getUserId()));
 
-            // Create new chat
+            // Create new chat, unless a concurrent request already did
             Chat chat = Chat.builder()
+                    .pairKey(pairKey)
                     .vendor(vendor)
                     .user(user)
                     .vendor2(null)
@@ -99,7 +99,7 @@ public class ChatService {
                     .updatedAt(LocalDateTime.now())
                     .build();
 
-            return chatRepository.save(chat);
+            return chatRepository.upsertByPairKey(chat);
         }
     }
 
@@ -108,55 +108,55 @@ public class ChatService {
     }
 
     public Optional<Chat> getChatByVendorAndUser(String vendorId, String userId) {
-        return chatRepository.findByVendor_IdAndUser_Id(vendorId, userId);
+        return chatRepository.findByPairKey(ChatPairKeys.vendorUser(vendorId, userId), false, vendorId, userId, null);
     }
 
     public List<Chat> getChatsByVendor(String vendorId) {
         // Get chats where vendor is vendor1 or vendor2
-        List<Chat> chatsAsVendor1 = chatRepository.findByVendor_Id(vendorId);
-        List<Chat> chatsAsVendor2 = chatRepository.findByVendor2_Id(vendorId);
+        List<Chat> chatsAsVendor1 = dbRefBatchLoader.findByReference(Chat.class, "vendor", vendorId);
+        List<Chat> chatsAsVendor2 = dbRefBatchLoader.findByReference(Chat.class, "vendor2", vendorId);
         
-        // Combine and return
+        // Combine and return (the support chat is created at registration, see SupportChatProvisioner)
         chatsAsVendor1.addAll(chatsAsVendor2);
-        
-        // Ensure Event Craft Support chat exists and is included
-        try {
-            Chat supportChat = getOrCreateEventCraftSupportChatForVendor(vendorId);
-            if (!chatsAsVendor1.stream().anyMatch(c -> c.getId().equals(supportChat.getId()))) {
-                chatsAsVendor1.add(supportChat);
-            }
-        } catch (Exception e) {
-            // Ignore if support chat creation fails
-        }
-        
         return chatsAsVendor1;
     }
 
     public List<Chat> getChatsByUser(String userId) {
-        List<Chat> chats = chatRepository.findByUser_Id(userId);
-        
-        // Ensure Event Craft Support chat exists and is included
-        try {
-            Chat supportChat = getOrCreateEventCraftSupportChat(userId);
-            if (!chats.stream().anyMatch(c -> c.getId().equals(supportChat.getId()))) {
-                chats.add(supportChat);
-            }
-        } catch (Exception e) {
-            // Ignore if support chat creation fails
+        // The support chat is created at registration, see SupportChatProvisioner
+        return dbRefBatchLoader.findByReference(Chat.class, "user", userId);
+    }
+
+    /**
+     * Get one page of a participant's inbox (vendorId or userId): pinned chats first, then by last activity,
+     * each with the counterpart's name, the last message preview and the unread count.
+     */
+    public InboxPageDTO getInbox(String participantId, String cursor, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new RuntimeException("Limit must be at least 1");
         }
-        
-        return chats;
+        int pageSize = Math.min(limit != null ? limit : defaultInboxPageSize, maxInboxPageSize);
+        InboxCursor after = cursor != null ? InboxCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists
+        InboxPageDTO page = chatRepository.findInbox(participantId,
+                after != null ? after.isPinned() : null,
+                after != null ? after.getLastActivityAt() : null,
+                after != null ? after.getChatId() : null,
+                pageSize + 1);
+
+        List<InboxChatDTO> chats = page.getChats();
+        boolean hasMore = chats.size() > pageSize;
+        if (hasMore) {
+            chats = chats.subList(0, pageSize);
+        }
+        page.setChats(chats);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? InboxCursor.encode(chats.get(chats.size() - 1)) : null);
+        return page;
     }
 
     public void updateChatLastMessage(String chatId, String lastMessage) {
-        Optional<Chat> chatOpt = chatRepository.findById(chatId);
-        if (chatOpt.isPresent()) {
-            Chat chat = chatOpt.get();
-            chat.setLastMessage(lastMessage);
-            chat.setLastMessageAt(LocalDateTime.now());
-            chat.setUpdatedAt(LocalDateTime.now());
-            chatRepository.save(chat);
-        }
+        chatRepository.updateLastMessage(chatId, null, null, lastMessage, LocalDateTime.now());
     }
 
     /**
@@ -165,47 +165,12 @@ public class ChatService {
      */
     public Chat getOrCreateEventCraftSupportChat(String userId) {
         // Check if system chat already exists for this user
-        Optional<Chat> existingChat = chatRepository.findByUser_IdAndIsSystemChatTrue(userId);
+        Optional<Chat> existingChat = chatRepository.findByPairKey(ChatPairKeys.userSupport(userId), true, null, userId, null);
         if (existingChat.isPresent()) {
             return existingChat.get();
         }
 
-        // Find or create Event Craft Support vendor (special vendor for admin support)
-        Vendor eventCraftSupport = vendorRepository.findByCompanyName("Event Craft Support")
-                .stream()
-                .findFirst()
-                .orElseGet(() -> {
-                    // Find or create admin user first
-                    User adminUser = userRepository.findByRole(User.Role.ADMIN)
-                            .stream()
-                            .findFirst()
-                            .orElseGet(() -> {
-                                // Generate secure password for system support account
-                                String securePassword = passwordEncoder.encode("EventCraftSupport2024!");
-                                User defaultAdmin = User.builder()
-                                        .username("eventcraft_support")
-                                        .email("support@eventcraft.com")
-                                        .fullName("Event Craft Support")
-                                        .role(User.Role.ADMIN)
-                                        .password(securePassword)
-                                        .createdAt(LocalDateTime.now())
-                                        .updatedAt(LocalDateTime.now())
-                                        .build();
-                                return userRepository.save(defaultAdmin);
-                            });
-                    
-                    // Create Event Craft Support vendor
-                    Vendor supportVendor = Vendor.builder()
-                            .user(adminUser)
-                            .companyName("Event Craft Support")
-                            .serviceType("Customer Support")
-                            .address("Online")
-                            .approvalStatus(Vendor.ApprovalStatus.APPROVED)
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .build();
-                    return vendorRepository.save(supportVendor);
-                });
+        Vendor eventCraftSupport = supportIdentityService.get().getSupportVendor();
 
         // Get the user requesting the chat
         User user = userRepository.findById(userId)
@@ -213,6 +178,7 @@ public class ChatService {
 
         // Create system chat with Event Craft Support vendor
         Chat systemChat = Chat.builder()
+                .pairKey(ChatPairKeys.userSupport(userId))
                 .vendor(eventCraftSupport)
                 .vendor2(null)
                 .user(user)
@@ -224,7 +190,7 @@ public class ChatService {
                 .lastMessageAt(LocalDateTime.now())
                 .build();
 
-        return chatRepository.save(systemChat);
+        return chatRepository.upsertByPairKey(systemChat);
     }
 
     /**
@@ -232,45 +198,12 @@ public class ChatService {
      */
     public Chat getOrCreateEventCraftSupportChatForVendor(String vendorId) {
         // Check if system chat already exists for this vendor
-        Optional<Chat> existingChat = chatRepository.findByVendor_IdAndIsSystemChatTrue(vendorId);
+        Optional<Chat> existingChat = chatRepository.findByPairKey(ChatPairKeys.vendorSupport(vendorId), true, vendorId, null, null);
         if (existingChat.isPresent()) {
             return existingChat.get();
         }
 
-        // Find or create Event Craft Support vendor
-        Vendor eventCraftSupport = vendorRepository.findByCompanyName("Event Craft Support")
-                .stream()
-                .findFirst()
-                .orElseGet(() -> {
-                    User adminUser = userRepository.findByRole(User.Role.ADMIN)
-                            .stream()
-                            .findFirst()
-                            .orElseGet(() -> {
-                                // Generate secure password for system support account
-                                String securePassword = passwordEncoder.encode("EventCraftSupport2024!");
-                                User defaultAdmin = User.builder()
-                                        .username("eventcraft_support")
-                                        .email("support@eventcraft.com")
-                                        .fullName("Event Craft Support")
-                                        .role(User.Role.ADMIN)
-                                        .password(securePassword)
-                                        .createdAt(LocalDateTime.now())
-                                        .updatedAt(LocalDateTime.now())
-                                        .build();
-                                return userRepository.save(defaultAdmin);
-                            });
-                    
-                    Vendor supportVendor = Vendor.builder()
-                            .user(adminUser)
-                            .companyName("Event Craft Support")
-                            .serviceType("Customer Support")
-                            .address("Online")
-                            .approvalStatus(Vendor.ApprovalStatus.APPROVED)
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .build();
-                    return vendorRepository.save(supportVendor);
-                });
+        Vendor eventCraftSupport = supportIdentityService.get().getSupportVendor();
 
         // Get the vendor requesting the chat
         Vendor vendor = vendorRepository.findById(vendorId)
@@ -278,6 +211,7 @@ public class ChatService {
 
         // Create vendor-to-vendor system chat
         Chat systemChat = Chat.builder()
+                .pairKey(ChatPairKeys.vendorSupport(vendorId))
                 .vendor(vendor)
                 .vendor2(eventCraftSupport)
                 .user(null)
@@ -289,7 +223,7 @@ public class ChatService {
                 .lastMessageAt(LocalDateTime.now())
                 .build();
 
-        return chatRepository.save(systemChat);
+        return chatRepository.upsertByPairKey(systemChat);
     }
 }
 
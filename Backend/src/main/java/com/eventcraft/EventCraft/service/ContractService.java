@@ -5,6 +5,7 @@ import com.eventcraft.EventCraft.entity.Event;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.entity.Vendor;
 import com.eventcraft.EventCraft.repository.ContractRepository;
+import com.eventcraft.EventCraft.repository.DbRefBatchLoader;
 import com.eventcraft.EventCraft.repository.EventRepository;
 import com.eventcraft.EventCraft.repository.UserRepository;
 import com.eventcraft.EventCraft.repository.VendorRepository;
@@ -29,8 +30,14 @@ public class ContractService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DailyMetricsService dailyMetricsService;
+
+    @Autowired
+    private DbRefBatchLoader dbRefBatchLoader;
+
     public Contract saveContract(Contract contract) {
-        return contractRepository.save(contract);
+        return persist(contract);
     }
     
     public Contract saveContract(Contract contract, String eventId, String vendorId) {
@@ -52,7 +59,7 @@ public class ContractService {
             }
         }
         
-        return contractRepository.save(contract);
+        return persist(contract);
     }
 
     public Contract saveContract(Contract contract, String userId, String eventId, String vendorId) {
@@ -84,15 +91,26 @@ public class ContractService {
             }
         }
         
-        return contractRepository.save(contract);
+        return persist(contract);
+    }
+
+    private Contract persist(Contract contract) {
+        boolean isNew = contract.getId() == null;
+        // Only updates need the stored signed flag, to detect a contract being signed
+        boolean wasSigned = !isNew && contractRepository.findById(contract.getId())
+                .map(existing -> Boolean.TRUE.equals(existing.getSigned()))
+                .orElse(false);
+        Contract savedContract = contractRepository.save(contract);
+        dailyMetricsService.recordContractSaved(savedContract, isNew, wasSigned);
+        return savedContract;
     }
 
     public List<Contract> getAllContracts() {
-        return contractRepository.findAll();
+        return dbRefBatchLoader.findAll(Contract.class);
     }
 
     public List<Contract> getContractsByEventId(String eventId) {
-        List<Contract> contracts = contractRepository.findByEvent_Id(eventId);
+        List<Contract> contracts = dbRefBatchLoader.findByReference(Contract.class, "event", eventId);
         // Remove duplicates based on contract ID
         return contracts.stream()
                 .filter(contract -> contract.getId() != null)
@@ -107,6 +125,6 @@ public class ContractService {
     }
 
     public List<Contract> getContractsByUserId(String userId) {
-        return contractRepository.findByUser_Id(userId);
+        return dbRefBatchLoader.findByReference(Contract.class, "user", userId);
     }
 }
\ No newline at end of file
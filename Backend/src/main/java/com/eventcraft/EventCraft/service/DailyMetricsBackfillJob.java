@@ -0,0 +1,181 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.entity.AdminDailyMetrics;
+import com.eventcraft.EventCraft.repository.AdminDailyMetricsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds admin_daily_metrics, and the metric series derived from it, from the source collections.
+ * Deletes made outside the services (directly in the database) are only reflected after a rebuild.
+ * Runs once on startup when the rollup is empty, and on demand from the admin API; the series is also
+ * brought up to date with the rollup every eventcraft.metrics.series-sync-ms.
+ * Each source collection is grouped by day server-side, so the job never loads documents into memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyMetricsBackfillJob {
+
+    private static final String DAY_FORMAT = "%Y-%m-%d";
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final List<String> COUNTERS = List.of("newUsers", "newVendors", "newEvents", "newContracts", "bookings", "completedPayments");
+
+    private final MongoTemplate mongoTemplate;
+    private final AdminDailyMetricsRepository dailyMetricsRepository;
+    private final MetricSeriesService metricSeriesService;
+
+    @Value("${eventcraft.metrics.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // Start of the last successful series sync
+    private volatile LocalDateTime seriesSyncedAt;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (mongoTemplate.estimatedCount(AdminDailyMetrics.class) == 0) {
+                int days = rebuild();
+                log.info("Backfilled admin daily metrics for {} days", days);
+            } else {
+                syncSeries();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Admin daily metrics backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the day buckets of every closed day (before today) from the source collections; buckets of
+     * days without source documents are zeroed. Today's bucket is left to the live counters: the absolute
+     * values written here would overwrite any increment landing between the aggregation and the write,
+     * and only today's bucket still receives increments. Returns the number of day buckets written.
+     */
+    public int rebuild() {
+        Map<String, Map<String, Number>> days = new TreeMap<>();
+        LocalDate today = LocalDate.now();
+
+        collect(days, today, "users", "createdAt", new Document(),
+                new Document("newUsers", new Document("$sum", 1)));
+        collect(days, today, "vendors", "createdAt", new Document(),
+                new Document("newVendors", new Document("$sum", 1)));
+        collect(days, today, "events", "createdAt", new Document(),
+                new Document("newEvents", new Document("$sum", 1)));
+        collect(days, today, "contracts", "createdAt", new Document(),
+                new Document("newContracts", new Document("$sum", 1))
+                        .append("bookings", new Document("$sum",
+                                new Document("$cond", List.of(
+                                        new Document("$eq", List.of("$signed", true)), 1, 0)))));
+        collect(days, today, "payments", "paymentDate", new Document("paymentStatus", "COMPLETED"),
+                new Document("completedPayments", new Document("$sum", 1))
+                        .append("revenue", new Document("$sum", new Document("$ifNull", List.of("$amount", 0)))));
+
+        // Days that no longer have any source documents keep their bucket, emptied
+        Update zero = new Update();
+        COUNTERS.forEach(counter -> zero.set(counter, 0L));
+        zero.set("revenue", 0.0).set("updatedAt", LocalDateTime.now());
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").nin(days.keySet()).lt(today.toString())), zero, AdminDailyMetrics.class);
+
+        if (days.isEmpty()) {
+            metricSeriesService.sync(dailyMetricsRepository.findAll());
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AdminDailyMetrics.class);
+        LocalDateTime now = LocalDateTime.now();
+        days.forEach((day, counters) -> {
+            Update update = new Update()
+                    .set("date", LocalDate.parse(day))
+                    .set("newUsers", longValue(counters.get("newUsers")))
+                    .set("newVendors", longValue(counters.get("newVendors")))
+                    .set("newEvents", longValue(counters.get("newEvents")))
+                    .set("newContracts", longValue(counters.get("newContracts")))
+                    .set("bookings", longValue(counters.get("bookings")))
+                    .set("completedPayments", longValue(counters.get("completedPayments")))
+                    .set("revenue", counters.get("revenue") != null ? counters.get("revenue").doubleValue() : 0.0)
+                    .set("updatedAt", now);
+            bulk.upsert(Query.query(Criteria.where("_id").is(day)), update);
+        });
+        bulk.execute();
+        metricSeriesService.sync(dailyMetricsRepository.findAll());
+        return days.size();
+    }
+
+    /**
+     * Append to the metric series whatever the rollup has counted since the last sync. Only buckets written
+     * since then are read (all of them on the first sync after startup).
+     */
+    @Scheduled(initialDelayString = "${eventcraft.metrics.series-sync-ms:60000}",
+            fixedDelayString = "${eventcraft.metrics.series-sync-ms:60000}")
+    public void syncSeries() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            LocalDateTime since = seriesSyncedAt;
+            // updatedAt is stamped before an increment lands, so look back past the previous sync a little
+            List<AdminDailyMetrics> changed = since == null
+                    ? dailyMetricsRepository.findAll()
+                    : dailyMetricsRepository.findByUpdatedAtGreaterThanEqual(since.minus(SYNC_OVERLAP));
+            int appended = metricSeriesService.sync(changed);
+            seriesSyncedAt = startedAt;
+            if (appended > 0) {
+                log.debug("Appended {} metric samples from the admin daily metrics rollup", appended);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Metric series sync failed: {}", e.getMessage());
+        }
+    }
+
+    // Group the documents dated before today by day
+    private void collect(Map<String, Map<String, Number>> days, LocalDate today, String collection, String dateField,
+                         Document match, Document accumulators) {
+        Document matchStage = new Document(match).append(dateField, new Document("$type", "date")
+                .append("$lt", Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant())));
+        Document groupStage = new Document("_id", new Document("$dateToString", new Document("format", DAY_FORMAT)
+                .append("date", "$" + dateField)
+                .append("timezone", ZoneId.systemDefault().getId())));
+        groupStage.putAll(accumulators);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.stage(new Document("$match", matchStage)),
+                Aggregation.stage(new Document("$group", groupStage)));
+
+        for (Document result : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            Map<String, Number> counters = days.computeIfAbsent(result.getString("_id"), key -> new HashMap<>());
+            for (String field : accumulators.keySet()) {
+                counters.put(field, (Number) result.get(field));
+            }
+        }
+    }
+
+    private static long longValue(Number value) {
+        return value != null ? value.longValue() : 0L;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.*;
+import com.eventcraft.EventCraft.repository.AdminDailyMetricsRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains the admin_daily_metrics rollup.
+ * Each write to users, vendors, events, contracts or payments bumps the counters of its day bucket
+ * with a single upsert, so admin reports only need to read the handful of days they cover.
+ * Deleting a user or an event takes its count back off the day it was created.
+ * The metric series used for period-over-period comparisons is derived from it (DailyMetricsBackfillJob).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyMetricsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AdminDailyMetricsRepository dailyMetricsRepository;
+
+    public void recordUserCreated(User user) {
+        increment(user.getCreatedAt(), new Update().inc("newUsers", 1));
+    }
+
+    public void recordVendorCreated(Vendor vendor) {
+        increment(vendor.getCreatedAt(), new Update().inc("newVendors", 1));
+    }
+
+    public void recordEventCreated(Event event) {
+        increment(event.getCreatedAt(), new Update().inc("newEvents", 1));
+    }
+
+    public void recordUserDeleted(User user) {
+        increment(user.getCreatedAt(), new Update().inc("newUsers", -1));
+    }
+
+    public void recordEventDeleted(Event event) {
+        increment(event.getCreatedAt(), new Update().inc("newEvents", -1));
+    }
+
+    /**
+     * Record a contract write. Bookings follow the signed flag, so a contract that gets signed
+     * (or unsigned) after creation moves the booking count of its creation day.
+     */
+    public void recordContractSaved(Contract contract, boolean created, boolean wasSigned) {
+        boolean signed = Boolean.TRUE.equals(contract.getSigned());
+        Update update = new Update();
+        boolean changed = false;
+        if (created) {
+            update.inc("newContracts", 1);
+            changed = true;
+        }
+        if (signed != wasSigned) {
+            update.inc("bookings", signed ? 1 : -1);
+            changed = true;
+        }
+        if (changed) {
+            increment(contract.getCreatedAt(), update);
+        }
+    }
+
+    public void recordPaymentCompleted(Payment payment) {
+        if (payment.getPaymentStatus() != Payment.PaymentStatus.COMPLETED) {
+            return;
+        }
+        double amount = payment.getAmount() != null ? payment.getAmount() : 0.0;
+        increment(payment.getPaymentDate(), new Update().inc("completedPayments", 1).inc("revenue", amount));
+    }
+
+    /**
+     * Get the day buckets between two dates (inclusive). Days without activity have no bucket.
+     */
+    public List<AdminDailyMetrics> getDays(LocalDate from, LocalDate to) {
+        return dailyMetricsRepository.findDaysBetween(from.toString(), to.toString());
+    }
+
+    /**
+     * Sum the buckets that fall between two dates (inclusive).
+     */
+    public static Totals sum(List<AdminDailyMetrics> days, LocalDate from, LocalDate to) {
+        Totals totals = new Totals();
+        for (AdminDailyMetrics day : days) {
+            LocalDate date = day.getDate() != null ? day.getDate() : LocalDate.parse(day.getId());
+            if (date.isBefore(from) || date.isAfter(to)) {
+                continue;
+            }
+            totals.newUsers += day.getNewUsers();
+            totals.newVendors += day.getNewVendors();
+            totals.newEvents += day.getNewEvents();
+            totals.newContracts += day.getNewContracts();
+            totals.bookings += day.getBookings();
+            totals.completedPayments += day.getCompletedPayments();
+            totals.revenue += day.getRevenue();
+        }
+        return totals;
+    }
+
+    private void increment(LocalDateTime timestamp, Update update) {
+        LocalDate day = (timestamp != null ? timestamp : LocalDateTime.now()).toLocalDate();
+        update.setOnInsert("date", day).set("updatedAt", LocalDateTime.now());
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(day.toString())), update, AdminDailyMetrics.class);
+        } catch (RuntimeException e) {
+            // Metrics must never fail the business write; the backfill job can rebuild the day
+            log.warn("Failed to update daily metrics for {}: {}", day, e.getMessage());
+        }
+    }
+
+    @Getter
+    public static class Totals {
+        private long newUsers;
+        private long newVendors;
+        private long newEvents;
+        private long newContracts;
+        private long bookings;
+        private long completedPayments;
+        private double revenue;
+    }
+}
@@ -0,0 +1,69 @@
+package com.eventcraft.EventCraft.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One bit per day of a fixed range [from, to]. Dates outside the range are ignored when set and read as clear.
+ */
+final class DayBitmap {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final BitSet bits;
+
+    DayBitmap(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        this.bits = new BitSet(to.isBefore(from) ? 0 : (int) ChronoUnit.DAYS.between(from, to) + 1);
+    }
+
+    /**
+     * Set every day of [start, end] that falls inside the range.
+     */
+    void set(LocalDate start, LocalDate end) {
+        LocalDate first = start.isBefore(from) ? from : start;
+        LocalDate last = end.isAfter(to) ? to : end;
+        if (!last.isBefore(first)) {
+            bits.set(index(first), index(last) + 1);
+        }
+    }
+
+    /**
+     * Set every day that is set in the other bitmap, a word at a time. Both must cover the same range.
+     */
+    void or(DayBitmap other) {
+        if (!from.equals(other.from) || !to.equals(other.to)) {
+            throw new IllegalArgumentException("Bitmaps cover different ranges");
+        }
+        bits.or(other.bits);
+    }
+
+    boolean get(LocalDate day) {
+        return contains(day) && bits.get(index(day));
+    }
+
+    boolean contains(LocalDate day) {
+        return !day.isBefore(from) && !day.isAfter(to);
+    }
+
+    /**
+     * The days of the range whose bit is set, or clear, in order.
+     */
+    List<LocalDate> days(boolean set) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (bits.get(index(day)) == set) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private int index(LocalDate day) {
+        return (int) ChronoUnit.DAYS.between(from, day);
+    }
+}
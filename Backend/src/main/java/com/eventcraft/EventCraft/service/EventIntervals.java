@@ -0,0 +1,44 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Event;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A user's events as date intervals sorted by start date, for answering day-by-day availability
+ * over a range in one pass instead of testing every day against every event.
+ */
+final class EventIntervals {
+
+    private final List<Event> events;
+
+    EventIntervals(List<Event> events) {
+        // Events without both dates never block a day
+        this.events = events.stream()
+                .filter(event -> event.getStartDate() != null && event.getEndDate() != null)
+                .sorted(Comparator.comparing(Event::getStartDate))
+                .toList();
+    }
+
+    /**
+     * Visit each day of [from, to] in order with an event covering it, or null when the day is free.
+     * Runs in O(days + events): events are taken in start order, and the one ending last among those
+     * already started decides whether the current day is covered.
+     */
+    void sweep(LocalDate from, LocalDate to, BiConsumer<LocalDate, Event> visitor) {
+        int next = 0;
+        Event longest = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            while (next < events.size() && !events.get(next).getStartDate().isAfter(day)) {
+                Event started = events.get(next++);
+                if (longest == null || started.getEndDate().isAfter(longest.getEndDate())) {
+                    longest = started;
+                }
+            }
+            visitor.accept(day, longest != null && !longest.getEndDate().isBefore(day) ? longest : null);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventcraft.EventCraft.service;
 
+import com.eventcraft.EventCraft.dto.EventSummary;
 import com.eventcraft.EventCraft.entity.Event;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.entity.Vendor;
@@ -23,11 +24,16 @@ public class EventService {
     private final UserRepository userRepository;
     private final VendorRepository vendorRepository;
     private final VendorPackageRepository vendorPackageRepository;
+    private final DailyMetricsService dailyMetricsService;
 
     public List<Event> getAllEvents() {
         return eventRepository.findAll();
     }
 
+    public List<EventSummary> getEventSummaries() {
+        return eventRepository.findAllSummaries();
+    }
+
     public Optional<Event> getEventById(String id) {
         return eventRepository.findById(id);
     }
@@ -38,20 +44,33 @@ public class EventService {
             // Try to find user by ID if provided in a different way
             // This is a fallback - the controller should set the user
         }
-        return eventRepository.save(event);
+        return saveEvent(event);
     }
 
     public Event createEventForUser(String userId, Event event) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             event.setUser(userOpt.get());
-            return eventRepository.save(event);
+            return saveEvent(event);
         }
         throw new RuntimeException("User not found with id: " + userId);
     }
 
+    // createEvent is also used to update existing events, so only count events saved without an id
+    private Event saveEvent(Event event) {
+        boolean isNew = event.getId() == null;
+        Event savedEvent = eventRepository.save(event);
+        if (isNew) {
+            dailyMetricsService.recordEventCreated(savedEvent);
+        }
+        return savedEvent;
+    }
+
     public void deleteEvent(String id) {
-        eventRepository.deleteById(id);
+        eventRepository.findById(id).ifPresent(event -> {
+            eventRepository.deleteById(id);
+            dailyMetricsService.recordEventDeleted(event);
+        });
     }
 
     // Calendar-related methods
@@ -0,0 +1,49 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.InboxChatDTO;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Opaque position in an inbox: the (pinned, last activity, chat id) of the last row served,
+ * encoded as URL-safe base64.
+ */
+@Getter
+public final class InboxCursor {
+
+    private final boolean pinned;
+    private final LocalDateTime lastActivityAt;
+    private final String chatId;
+
+    private InboxCursor(boolean pinned, LocalDateTime lastActivityAt, String chatId) {
+        this.pinned = pinned;
+        this.lastActivityAt = lastActivityAt;
+        this.chatId = chatId;
+    }
+
+    public static String encode(InboxChatDTO chat) {
+        long millis = chat.getLastActivityAt() != null
+                ? chat.getLastActivityAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        String raw = (chat.isPinned() ? "1" : "0") + ":" + millis + ":" + chat.getChatId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static InboxCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || parts[2].isEmpty() || !(parts[0].equals("0") || parts[0].equals("1"))) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime lastActivityAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[1])), ZoneId.systemDefault());
+            return new InboxCursor(parts[0].equals("1"), lastActivityAt, parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid inbox cursor");
+        }
+    }
+}
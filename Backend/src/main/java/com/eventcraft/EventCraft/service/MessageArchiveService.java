@@ -0,0 +1,297 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.MessageView;
+import com.eventcraft.EventCraft.entity.ChatParticipants;
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.entity.MessageBucket;
+import com.eventcraft.EventCraft.repository.MessageBucketRepository;
+import com.mongodb.MongoClientSettings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier for chat history. The archive job moves messages older than the configured age out of
+ * the messages collection into one gzipped bucket per chat and day; history reads page through both tiers.
+ * A bucket is written before its messages are deleted, so an interrupted run leaves duplicates
+ * (dropped on read and merged by the next run), never gaps.
+ * Unread counts and search only cover the hot tier.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+    private static final Comparator<MessageView> CHRONOLOGICAL =
+            Comparator.comparing(MessageView::getCreatedAt).thenComparing(MessageView::getId);
+    private static final int BUCKETS_PER_READ = 8;
+
+    private final MongoTemplate mongoTemplate;
+    private final MessageBucketRepository bucketRepository;
+
+    @Value("${eventcraft.messages.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${eventcraft.messages.archive.after-days:90}")
+    private int afterDays;
+
+    @Scheduled(cron = "${eventcraft.messages.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int archived = archiveBefore(LocalDate.now().minusDays(afterDays));
+            log.info("Archived {} messages older than {} days", archived, afterDays);
+        } catch (RuntimeException e) {
+            log.warn("Message archive run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move every message created before the given day into buckets. Returns the number of messages moved.
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        Query query = Query.query(Criteria.where("createdAt").lt(toDate(cutoff.atStartOfDay())))
+                .with(Sort.by(Sort.Direction.ASC, "chatId", "createdAt", "_id"));
+        query.fields().exclude("updatedAt", "participants");
+
+        int archived = 0;
+        String bucketId = null;
+        List<Document> bucket = new ArrayList<>();
+        try (var messages = mongoTemplate.stream(query, Document.class, "messages")) {
+            for (Iterator<Document> it = messages.iterator(); it.hasNext(); ) {
+                Document message = it.next();
+                String chatId = message.getString("chatId");
+                if (chatId == null || message.getDate("createdAt") == null) {
+                    continue;
+                }
+                String id = bucketId(chatId, toLocalDateTime(message.getDate("createdAt")).toLocalDate());
+                if (!id.equals(bucketId)) {
+                    archived += writeBucket(bucketId, bucket);
+                    bucketId = id;
+                    bucket = new ArrayList<>();
+                }
+                bucket.add(message);
+            }
+        }
+        archived += writeBucket(bucketId, bucket);
+        return archived;
+    }
+
+    /**
+     * Archived messages strictly older than (createdAt, id), newest first. A null createdAt starts from the newest.
+     */
+    public List<MessageView> findBefore(String chatId, LocalDateTime createdAt, String id, int limit) {
+        String upper = createdAt != null ? bucketId(chatId, createdAt.toLocalDate()) : chatId + ":~";
+        List<MessageView> result = new ArrayList<>();
+        for (int page = 0; result.size() < limit; page++) {
+            List<MessageBucket> buckets = bucketRepository.findNewestFirst(chatId + ":", upper, PageRequest.of(page, BUCKETS_PER_READ));
+            for (MessageBucket bucket : buckets) {
+                List<MessageView> views = decode(bucket);
+                views.sort(CHRONOLOGICAL.reversed());
+                for (MessageView view : views) {
+                    if (createdAt == null || isBefore(view, createdAt, id)) {
+                        result.add(view);
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            if (buckets.size() < BUCKETS_PER_READ) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Archived messages strictly newer than (createdAt, id), oldest first.
+     */
+    public List<MessageView> findAfter(String chatId, LocalDateTime createdAt, String id, int limit) {
+        String lower = bucketId(chatId, createdAt.toLocalDate());
+        List<MessageView> result = new ArrayList<>();
+        for (int page = 0; result.size() < limit; page++) {
+            List<MessageBucket> buckets = bucketRepository.findOldestFirst(lower, chatId + ":~", PageRequest.of(page, BUCKETS_PER_READ));
+            for (MessageBucket bucket : buckets) {
+                List<MessageView> views = decode(bucket);
+                views.sort(CHRONOLOGICAL);
+                for (MessageView view : views) {
+                    if (isAfter(view, createdAt, id)) {
+                        result.add(view);
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            if (buckets.size() < BUCKETS_PER_READ) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every archived message of a chat, oldest first, as entities carrying the given participant snapshot.
+     */
+    public List<Message> findAll(String chatId, ChatParticipants participants) {
+        List<Message> messages = new ArrayList<>();
+        for (MessageBucket bucket : bucketRepository.findOldestFirst(chatId + ":", chatId + ":~", Pageable.unpaged())) {
+            List<MessageView> views = decode(bucket);
+            views.sort(CHRONOLOGICAL);
+            for (MessageView view : views) {
+                messages.add(Message.builder()
+                        .id(view.getId())
+                        .chatId(chatId)
+                        .participants(participants)
+                        .senderId(view.getSenderId())
+                        .senderType(view.getSenderType())
+                        .content(view.getContent())
+                        .status(view.getStatus())
+                        .createdAt(view.getCreatedAt())
+                        .build());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Merge hot and archived pages in the given order, dropping messages present in both tiers.
+     */
+    public static List<MessageView> merge(List<MessageView> hot, List<MessageView> archived, boolean newestFirst) {
+        Map<String, MessageView> byId = new LinkedHashMap<>();
+        hot.forEach(view -> byId.put(view.getId(), view));
+        archived.forEach(view -> byId.putIfAbsent(view.getId(), view));
+        List<MessageView> merged = new ArrayList<>(byId.values());
+        merged.sort(newestFirst ? CHRONOLOGICAL.reversed() : CHRONOLOGICAL);
+        return merged;
+    }
+
+    private int writeBucket(String bucketId, List<Document> messages) {
+        if (bucketId == null || messages.isEmpty()) {
+            return 0;
+        }
+        String chatId = bucketId.substring(0, bucketId.lastIndexOf(':'));
+
+        // Re-runs and interrupted runs may find the bucket already there
+        Map<String, Document> records = new LinkedHashMap<>();
+        bucketRepository.findById(bucketId).ifPresent(existing -> decodeRecords(existing)
+                .forEach(record -> records.put(record.getString("_id"), record)));
+        List<Object> ids = new ArrayList<>();
+        for (Document message : messages) {
+            ids.add(message.get("_id"));
+            records.put(message.get("_id").toString(), new Document("_id", message.get("_id").toString())
+                    .append("senderId", message.getString("senderId"))
+                    .append("senderType", message.getString("senderType"))
+                    .append("content", message.getString("content"))
+                    .append("status", message.getString("status"))
+                    .append("createdAt", message.getDate("createdAt")));
+        }
+
+        List<Document> sorted = new ArrayList<>(records.values());
+        sorted.sort(Comparator.comparing((Document record) -> record.getDate("createdAt")).thenComparing(record -> record.getString("_id")));
+        bucketRepository.save(MessageBucket.builder()
+                .id(bucketId)
+                .chatId(chatId)
+                .date(toLocalDateTime(sorted.get(0).getDate("createdAt")).toLocalDate())
+                .count(sorted.size())
+                .firstCreatedAt(toLocalDateTime(sorted.get(0).getDate("createdAt")))
+                .lastCreatedAt(toLocalDateTime(sorted.get(sorted.size() - 1).getDate("createdAt")))
+                .messages(gzip(new Document("m", sorted).toJson(JSON, CODEC)))
+                .archivedAt(LocalDateTime.now())
+                .build());
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), "messages");
+        return messages.size();
+    }
+
+    private List<MessageView> decode(MessageBucket bucket) {
+        List<MessageView> views = new ArrayList<>();
+        for (Document record : decodeRecords(bucket)) {
+            String senderType = record.getString("senderType");
+            String status = record.getString("status");
+            views.add(MessageView.builder()
+                    .id(record.getString("_id"))
+                    .chatId(bucket.getChatId())
+                    .senderId(record.getString("senderId"))
+                    .senderType(senderType != null ? Message.SenderType.valueOf(senderType) : null)
+                    .content(record.getString("content"))
+                    .status(status != null ? Message.MessageStatus.valueOf(status) : null)
+                    .createdAt(toLocalDateTime(record.getDate("createdAt")))
+                    .build());
+        }
+        return views;
+    }
+
+    private static List<Document> decodeRecords(MessageBucket bucket) {
+        return Document.parse(gunzip(bucket.getMessages()), CODEC).getList("m", Document.class);
+    }
+
+    private static boolean isBefore(MessageView view, LocalDateTime createdAt, String id) {
+        int byTime = view.getCreatedAt().compareTo(createdAt);
+        return byTime < 0 || (byTime == 0 && view.getId().compareTo(id) < 0);
+    }
+
+    private static boolean isAfter(MessageView view, LocalDateTime createdAt, String id) {
+        int byTime = view.getCreatedAt().compareTo(createdAt);
+        return byTime > 0 || (byTime == 0 && view.getId().compareTo(id) > 0);
+    }
+
+    private static String bucketId(String chatId, LocalDate day) {
+        return chatId + ":" + day;
+    }
+
+    private static byte[] gzip(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.repository.LegacyMessageChatRefs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves messages from the legacy chat DBRef to the embedded chatId and participant snapshot.
+ * One server-side aggregation joins each legacy message to its chat and $merges the new fields back
+ * into the messages collection; the DBRef and the index built on it are then dropped.
+ * Runs on every start until no legacy messages remain, which a marker in startup_tasks then records.
+ * It runs independently of the pair key index, and never at the same time as a pair key merge (both move
+ * messages between chats). Until it reports none left, message reads also match the legacy reference
+ * (LegacyMessageChatRefs), so older history stays visible.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageChatIdMigration {
+
+    private static final String MESSAGES = "messages";
+    private static final String LEGACY_INDEX = "chat_createdAt_id";
+    private static final String MARKERS = "startup_tasks";
+    private static final String MARKER = "message-chat-id-migration";
+
+    private final MongoTemplate mongoTemplate;
+    private final LegacyMessageChatRefs legacyChatRefs;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        try {
+            // Done on an earlier start: the probe below is an unindexed scan of messages once the legacy index is gone
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MARKERS)) {
+                legacyChatRefs.markMigrated();
+                return;
+            }
+            if (mongoTemplate.exists(Query.query(Criteria.where("chat").exists(true)), MESSAGES)) {
+                synchronized (ChatPairKeyMigration.LOCK) {
+                    long migrated = migrate();
+                    log.info("Moved {} messages to embedded chat ids", migrated);
+                }
+            }
+            // Anything left (e.g. a message whose chat is gone) keeps the read fallback on
+            if (mongoTemplate.exists(Query.query(Criteria.where("chat").exists(true)), MESSAGES)) {
+                log.warn("Some messages still only reference their chat through the legacy DBRef");
+                return;
+            }
+            legacyChatRefs.markMigrated();
+            if (mongoTemplate.indexOps(MESSAGES).getIndexInfo().stream().anyMatch(index -> LEGACY_INDEX.equals(index.getName()))) {
+                mongoTemplate.indexOps(MESSAGES).dropIndex(LEGACY_INDEX);
+            }
+            mongoTemplate.save(new Document("_id", MARKER).append("completedAt", new Date()), MARKERS);
+        } catch (RuntimeException e) {
+            log.warn("Message chat id migration failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of messages that lost their legacy chat reference.
+     */
+    public long migrate() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.stage(new Document("$match", new Document("chatId", new Document("$exists", false))
+                        .append("chat.$id", new Document("$exists", true)))),
+                Aggregation.stage(new Document("$lookup", new Document("from", "chats")
+                        .append("localField", "chat.$id")
+                        .append("foreignField", "_id")
+                        .append("pipeline", List.of(new Document("$project", new Document("vendor", 1).append("user", 1).append("vendor2", 1))))
+                        .append("as", "c"))),
+                Aggregation.stage(new Document("$project", new Document("_id", 1)
+                        .append("chatId", new Document("$toString", "$chat.$id"))
+                        .append("participants", new Document("vendorId", refId("vendor"))
+                                .append("userId", refId("user"))
+                                .append("vendor2Id", refId("vendor2"))))),
+                Aggregation.stage(new Document("$merge", new Document("into", MESSAGES)
+                        .append("on", "_id")
+                        .append("whenMatched", "merge")
+                        .append("whenNotMatched", "discard"))));
+        // $merge writes server-side and returns no documents
+        mongoTemplate.aggregate(aggregation, MESSAGES, Document.class);
+
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("chatId").exists(true).and("chat").exists(true)),
+                new Update().unset("chat"), MESSAGES).getModifiedCount();
+    }
+
+    // Id of a participant reference of the joined chat, as a string, or null when the chat has none
+    private static Document refId(String field) {
+        return new Document("$toString", new Document("$first", "$c." + field + ".$id"));
+    }
+}
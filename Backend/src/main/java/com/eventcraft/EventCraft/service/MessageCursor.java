@@ -0,0 +1,52 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.MessageView;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * Opaque position in a chat history: the (createdAt, id) of a message, encoded as URL-safe base64.
+ * Change feeds use the same format with updatedAt in place of createdAt.
+ * The time is kept to the millisecond, which is the precision MongoDB stores.
+ */
+@Getter
+public final class MessageCursor {
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private MessageCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(MessageView message) {
+        return encode(message.getCreatedAt(), message.getId());
+    }
+
+    public static String encode(LocalDateTime at, String id) {
+        long millis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String raw = millis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long millis = Long.parseLong(raw.substring(0, separator));
+            String id = raw.substring(separator + 1);
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException("Missing id");
+            }
+            return new MessageCursor(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid message cursor");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.MessageSearchHitDTO;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in search results: the (score, message id) of the last hit served, as URL-safe base64.
+ */
+@Getter
+public final class MessageSearchCursor {
+
+    private final double score;
+    private final String messageId;
+
+    private MessageSearchCursor(double score, String messageId) {
+        this.score = score;
+        this.messageId = messageId;
+    }
+
+    public static String encode(MessageSearchHitDTO hit) {
+        String raw = hit.getScore() + ":" + hit.getMessageId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MessageSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            String messageId = raw.substring(separator + 1);
+            if (separator < 1 || messageId.isEmpty()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new MessageSearchCursor(Double.parseDouble(raw.substring(0, separator)), messageId);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid search cursor");
+        }
+    }
+}
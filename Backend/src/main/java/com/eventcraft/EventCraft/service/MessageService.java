@@ -1,31 +1,75 @@
 package com.eventcraft.EventCraft.service;
 
+import com.eventcraft.EventCraft.dto.MessageChangesDTO;
 import com.eventcraft.EventCraft.dto.MessageDTO;
+import com.eventcraft.EventCraft.dto.MessagePageDTO;
+import com.eventcraft.EventCraft.dto.MessageSearchHitDTO;
+import com.eventcraft.EventCraft.dto.MessageSearchPageDTO;
+import com.eventcraft.EventCraft.dto.MessageView;
 import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.ChatParticipants;
 import com.eventcraft.EventCraft.entity.Message;
 import com.eventcraft.EventCraft.repository.ChatRepository;
 import com.eventcraft.EventCraft.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
     private final MessageRepository messageRepository;
+    private final MessageWriteBehind messageWriteBehind;
     private final ChatRepository chatRepository;
-    private final ChatService chatService;
+    private final AutomatedReplyService automatedReplyService;
+    private final MessageArchiveService messageArchiveService;
+    private final RealtimePublisher realtimePublisher;
+    private final RecentSendCache recentSendCache;
 
-    public Message sendMessage(MessageDTO messageDTO) {
-        // Find chat
-        Chat chat = chatRepository.findById(messageDTO.getChatId())
-                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + messageDTO.getChatId()));
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int SNIPPET_LENGTH = 120;
+    // How long a retry waits for the send already holding its client message id
+    private static final long IN_FLIGHT_WAIT_SECONDS = 10;
+
+    @Value("${eventcraft.messages.page-size-default:50}")
+    private int defaultPageSize;
+
+    @Value("${eventcraft.messages.page-size-max:100}")
+    private int maxPageSize;
+
+    @Value("${eventcraft.messages.sync-settle-ms:2000}")
+    private long syncSettleMs;
 
+    @Value("${eventcraft.messages.search-window-days:90}")
+    private int searchWindowDays;
+
+    /**
+     * Send a message in two round trips: a guarded findAndModify that checks the sender belongs to the chat
+     * and sets its last message, then the message insert; if the insert fails, the previous last message is put back.
+     * Push and the automated reply run asynchronously.
+     * With a client message id the send is idempotent: a replay returns the message stored the first time.
+     */
+    public Message sendMessage(MessageDTO messageDTO) {
         // Validate sender type
         Message.SenderType senderType;
         try {
@@ -34,6 +78,138 @@ public class MessageService {
             throw new RuntimeException("Invalid sender type. Must be VENDOR or USER");
         }
 
+        // A retry of a send that already went through gets the stored message back, and no second reply
+        String clientMessageId = messageDTO.getClientMessageId();
+        if (clientMessageId != null) {
+            Message existing = findSent(messageDTO.getSenderId(), clientMessageId);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Message message = Message.builder()
+                .id(new ObjectId().toHexString())
+                .chatId(messageDTO.getChatId())
+                .senderId(messageDTO.getSenderId())
+                .senderType(senderType)
+                .clientMessageId(clientMessageId)
+                .content(messageDTO.getContent())
+                .status(Message.MessageStatus.SENT)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        // Claim the send before anything is written, so a concurrent retry waits for this send instead of writing again
+        if (clientMessageId != null) {
+            CompletableFuture<Message> inFlight;
+            while ((inFlight = recentSendCache.claim(message)) != null) {
+                Message sent = awaitSend(inFlight, message.getSenderId(), clientMessageId);
+                if (sent != null) {
+                    return sent;
+                }
+                // The send holding the claim failed and released it: try to claim it again
+            }
+        }
+
+        // Update chat's last message, only if the sender is a participant
+        String lastMessagePreview = messageDTO.getContent().length() > 50 
+                ? messageDTO.getContent().substring(0, 50) + "..." 
+                : messageDTO.getContent();
+        Chat chat;
+        try {
+            chat = chatRepository.updateLastMessage(messageDTO.getChatId(), senderType, messageDTO.getSenderId(),
+                            lastMessagePreview, now)
+                    .orElseThrow(() -> rejectSender(messageDTO.getChatId(), senderType, messageDTO.getSenderId()));
+        } catch (RuntimeException e) {
+            if (clientMessageId != null) {
+                recentSendCache.release(message);
+            }
+            throw e;
+        }
+
+        Message savedMessage;
+        message.setChatId(chat.getId());
+        message.setParticipants(ChatParticipants.of(chat));
+        try {
+            savedMessage = messageWriteBehind.insert(message);
+        } catch (DuplicateKeyException e) {
+            // This message was not stored, so the chat must not preview it
+            restorePreview(chat, now);
+            if (clientMessageId == null) {
+                throw e;
+            }
+            // Another instance stored the same send first
+            recentSendCache.release(message);
+            return messageRepository.findBySenderIdAndClientMessageId(message.getSenderId(), clientMessageId)
+                    .orElseThrow(() -> e);
+        } catch (RuntimeException e) {
+            // The message was not stored, so the chat must not preview it
+            restorePreview(chat, now);
+            if (clientMessageId != null) {
+                recentSendCache.release(message);
+            }
+            throw e;
+        }
+        if (clientMessageId != null) {
+            recentSendCache.stored(savedMessage);
+        }
+        realtimePublisher.messageCreated(chat, savedMessage);
+
+        // Send automated reply if message is sent TO a vendor (not FROM a vendor)
+        // Only for vendor-to-user chats, and only if user sent the message
+        boolean isVendorToVendor = chat.getVendor2() != null;
+        if (!isVendorToVendor && senderType == Message.SenderType.USER && chat.getVendor() != null) {
+            automatedReplyService.replyAsVendor(chat);
+        }
+
+        return savedMessage;
+    }
+
+    private void restorePreview(Chat previous, LocalDateTime at) {
+        try {
+            chatRepository.restoreLastMessage(previous.getId(), at, previous.getLastMessage(), previous.getLastMessageAt());
+        } catch (RuntimeException e) {
+            log.warn("Failed to restore the last message of chat {}: {}", previous.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for the send holding this client message id. Returns the message it stored, or null if it failed
+     * and released the claim without another instance having stored the message meanwhile.
+     */
+    private Message awaitSend(CompletableFuture<Message> inFlight, String senderId, String clientMessageId) {
+        try {
+            Message sent = inFlight.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+            return sent != null ? sent : findSent(senderId, clientMessageId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the first send of this message");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("The first send of this message is still in progress, retry later");
+        }
+    }
+
+    // A send already made with this client message id: recently sent, still queued for write-behind, or stored
+    private Message findSent(String senderId, String clientMessageId) {
+        Message sent = recentSendCache.get(senderId, clientMessageId);
+        if (sent == null) {
+            sent = messageWriteBehind.findPending(senderId, clientMessageId)
+                    .or(() -> messageRepository.findBySenderIdAndClientMessageId(senderId, clientMessageId))
+                    .orElse(null);
+        }
+        return sent;
+    }
+
+    // Only reached when the guarded update matched nothing: explain why
+    private RuntimeException rejectSender(String chatId, Message.SenderType senderType, String senderId) {
+        Chat chat = chatRepository.findById(chatId)
+                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+        validateSender(chat, senderType, senderId);
+        return new RuntimeException("Sender is not a participant in this chat");
+    }
+
+    private void validateSender(Chat chat, Message.SenderType senderType, String senderId) {
         // Validate sender ID matches chat participants
         boolean isVendorToVendor = chat.getVendor2() != null;
         boolean isSystemChat = chat.getIsSystemChat() != null && chat.getIsSystemChat();
@@ -43,14 +219,14 @@ public class MessageService {
             if (senderType == Message.SenderType.VENDOR) {
                 // For vendor-to-vendor chats, sender can be either vendor
                 if (isVendorToVendor) {
-                    boolean isVendor1 = chat.getVendor() != null && chat.getVendor().getId().equals(messageDTO.getSenderId());
-                    boolean isVendor2 = chat.getVendor2() != null && chat.getVendor2().getId().equals(messageDTO.getSenderId());
+                    boolean isVendor1 = chat.getVendor() != null && chat.getVendor().getId().equals(senderId);
+                    boolean isVendor2 = chat.getVendor2() != null && chat.getVendor2().getId().equals(senderId);
                     if (!isVendor1 && !isVendor2) {
                         throw new RuntimeException("Sender ID does not match either vendor in this chat");
                     }
                 } else {
                     // Vendor-to-user chat
-                    if (chat.getVendor() == null || !chat.getVendor().getId().equals(messageDTO.getSenderId())) {
+                    if (chat.getVendor() == null || !chat.getVendor().getId().equals(senderId)) {
                         throw new RuntimeException("Sender ID does not match the vendor in this chat");
                     }
                 }
@@ -59,7 +235,7 @@ public class MessageService {
                 if (isVendorToVendor) {
                     throw new RuntimeException("Users cannot send messages in vendor-to-vendor chats");
                 }
-                if (chat.getUser() == null || !chat.getUser().getId().equals(messageDTO.getSenderId())) {
+                if (chat.getUser() == null || !chat.getUser().getId().equals(senderId)) {
                     throw new RuntimeException("Sender ID does not match the user in this chat");
                 }
             }
@@ -68,128 +244,235 @@ public class MessageService {
             // For system chats, we allow the admin vendor or the user/vendor who initiated the chat
             if (senderType == Message.SenderType.VENDOR) {
                 boolean isValidVendor = false;
-                if (chat.getVendor() != null && chat.getVendor().getId().equals(messageDTO.getSenderId())) {
+                if (chat.getVendor() != null && chat.getVendor().getId().equals(senderId)) {
                     isValidVendor = true;
                 }
-                if (chat.getVendor2() != null && chat.getVendor2().getId().equals(messageDTO.getSenderId())) {
+                if (chat.getVendor2() != null && chat.getVendor2().getId().equals(senderId)) {
                     isValidVendor = true;
                 }
                 if (!isValidVendor) {
                     throw new RuntimeException("Sender ID does not match any vendor in this system chat");
                 }
             } else if (senderType == Message.SenderType.USER) {
-                if (chat.getUser() == null || !chat.getUser().getId().equals(messageDTO.getSenderId())) {
+                if (chat.getUser() == null || !chat.getUser().getId().equals(senderId)) {
                     throw new RuntimeException("Sender ID does not match the user in this system chat");
                 }
             }
         }
+    }
 
-        // Create message
-        Message message = Message.builder()
-                .chat(chat)
-                .senderId(messageDTO.getSenderId())
-                .senderType(senderType)
-                .content(messageDTO.getContent())
-                .status(Message.MessageStatus.SENT)
-                .createdAt(LocalDateTime.now())
-                .build();
+    public List<Message> getMessagesByChat(String chatId) {
+        List<Message> hot = messageRepository.findByChatIdOrderByCreatedAtAsc(chatId);
+        ChatParticipants participants = !hot.isEmpty() ? hot.get(0).getParticipants() : null;
+        List<Message> archived = messageArchiveService.findAll(chatId, participants);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        // Archived messages are older than every hot one; skip any still present in both tiers
+        Set<String> hotIds = hot.stream().map(Message::getId).collect(Collectors.toSet());
+        List<Message> messages = new ArrayList<>(archived.size() + hot.size());
+        archived.stream().filter(message -> !hotIds.contains(message.getId())).forEach(messages::add);
+        messages.addAll(hot);
+        return messages;
+    }
 
-        Message savedMessage = messageRepository.save(message);
+    /**
+     * Get one page of a chat history, oldest first.
+     * Without a cursor the newest page is returned; "before" walks back in time and "after" forward.
+     */
+    public MessagePageDTO getMessagePage(String chatId, String before, String after, Integer limit) {
+        if (before != null && after != null) {
+            throw new RuntimeException("Use either before or after, not both");
+        }
+        if (limit != null && limit < 1) {
+            throw new RuntimeException("Limit must be at least 1");
+        }
+        if (!chatRepository.existsById(chatId)) {
+            throw new RuntimeException("Chat not found with id: " + chatId);
+        }
+        int pageSize = Math.min(limit != null ? limit : defaultPageSize, maxPageSize);
 
-        // Update chat's last message
-        String lastMessagePreview = messageDTO.getContent().length() > 50 
-                ? messageDTO.getContent().substring(0, 50) + "..." 
-                : messageDTO.getContent();
-        chatService.updateChatLastMessage(messageDTO.getChatId(), lastMessagePreview);
+        // Fetch one extra message to know whether another page exists
+        // Archived messages are all older than the hot ones of the same chat, so the archive is only
+        // read going forward, or going back once the hot tier runs out
+        List<MessageView> messages;
+        if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            List<MessageView> hot = messageRepository.findViewsAfter(chatId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1);
+            List<MessageView> archived = messageArchiveService.findAfter(chatId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1);
+            messages = MessageArchiveService.merge(hot, archived, false);
+        } else {
+            MessageCursor cursor = before != null ? MessageCursor.decode(before) : null;
+            messages = messageRepository.findViewsBefore(chatId,
+                    cursor != null ? cursor.getCreatedAt() : null,
+                    cursor != null ? cursor.getId() : null,
+                    pageSize + 1);
+            if (messages.size() <= pageSize) {
+                MessageView oldest = !messages.isEmpty() ? messages.get(messages.size() - 1) : null;
+                List<MessageView> archived = messageArchiveService.findBefore(chatId,
+                        oldest != null ? oldest.getCreatedAt() : cursor != null ? cursor.getCreatedAt() : null,
+                        oldest != null ? oldest.getId() : cursor != null ? cursor.getId() : null,
+                        pageSize + 1 - messages.size());
+                messages = MessageArchiveService.merge(messages, archived, true);
+            }
+        }
 
-        // Send automated reply if message is sent TO a vendor (not FROM a vendor)
-        // Only for vendor-to-user chats, and only if user sent the message
-        if (!isVendorToVendor && senderType == Message.SenderType.USER && chat.getVendor() != null) {
-            sendAutomatedReply(chat, messageDTO.getSenderId());
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
+        if (after == null) {
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
         }
 
-        return savedMessage;
+        return MessagePageDTO.builder()
+                .messages(messages)
+                .hasMore(hasMore)
+                .beforeCursor(messages.isEmpty() ? before : MessageCursor.encode(messages.get(0)))
+                .afterCursor(messages.isEmpty() ? after : MessageCursor.encode(messages.get(messages.size() - 1)))
+                .build();
     }
 
-    private void sendAutomatedReply(Chat chat, String userSenderId) {
-        try {
-            // Create automated reply message
-            String automatedMessage = "Thank you for your message. We will contact you soon.";
-            String vendorId = chat.getVendor().getId();
-            
-            Message automatedReply = Message.builder()
-                    .chat(chat)
-                    .senderId(vendorId)
-                    .senderType(Message.SenderType.VENDOR)
-                    .content(automatedMessage)
-                    .status(Message.MessageStatus.SENT)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            
-            messageRepository.save(automatedReply);
-            
-            // Update chat's last message
-            chatService.updateChatLastMessage(chat.getId(), automatedMessage);
-        } catch (Exception e) {
-            // Log error but don't fail the original message send
-            System.err.println("Failed to send automated reply: " + e.getMessage());
+    /**
+     * Messages of a chat created or changed since the cursor, in order of their last change.
+     * Without a cursor the feed starts from the first message.
+     */
+    public MessageChangesDTO getChanges(String chatId, String since, Integer limit) {
+        if (!chatRepository.existsById(chatId)) {
+            throw new RuntimeException("Chat not found with id: " + chatId);
         }
+        return findChanges(List.of(chatId), since, limit);
     }
 
-    public List<Message> getMessagesByChat(String chatId) {
-        return messageRepository.findByChat_IdOrderByCreatedAtAsc(chatId);
+    /**
+     * Changes across every chat the participant takes part in, so a reconnecting client syncs in one request.
+     */
+    public MessageChangesDTO getParticipantChanges(String participantId, String since, Integer limit) {
+        List<String> chatIds = chatRepository.findChatIdsByParticipant(participantId);
+        if (chatIds.isEmpty()) {
+            return MessageChangesDTO.builder().changes(List.of()).hasMore(false).nextCursor(since).build();
+        }
+        return findChanges(chatIds, since, limit);
     }
 
-    public Optional<Message> getMessageById(String messageId) {
-        return messageRepository.findById(messageId);
+    private MessageChangesDTO findChanges(List<String> chatIds, String since, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new RuntimeException("Limit must be at least 1");
+        }
+        int pageSize = Math.min(limit != null ? limit : defaultPageSize, maxPageSize);
+        MessageCursor cursor = since != null ? MessageCursor.decode(since) : null;
+
+        // Writes stamp updatedAt before they land, so the feed stops short of the last moments; a change stamped
+        // just before a sync but stored just after it would otherwise fall behind the returned cursor
+        LocalDateTime upTo = LocalDateTime.now().minus(Duration.ofMillis(syncSettleMs));
+        List<MessageView> changes = messageRepository.findChanges(chatIds,
+                cursor != null ? cursor.getCreatedAt() : null,
+                cursor != null ? cursor.getId() : null,
+                upTo, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        MessageView last = !changes.isEmpty() ? changes.get(changes.size() - 1) : null;
+        return MessageChangesDTO.builder()
+                .changes(changes)
+                .hasMore(hasMore)
+                .nextCursor(last != null ? MessageCursor.encode(last.getUpdatedAt(), last.getId()) : since)
+                .build();
     }
 
-    public void markMessagesAsSeen(String chatId, String userId) {
-        // Get all unread messages in the chat that were not sent by this user
-        Chat chat = chatRepository.findById(chatId)
-                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+    /**
+     * Full-text search over the messages of every chat the participant takes part in, most relevant first.
+     * Only messages of the last eventcraft.messages.search-window-days are searched.
+     */
+    public MessageSearchPageDTO searchMessages(String participantId, String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new RuntimeException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (limit != null && limit < 1) {
+            throw new RuntimeException("Limit must be at least 1");
+        }
+        int pageSize = Math.min(limit != null ? limit : defaultPageSize, maxPageSize);
+        MessageSearchCursor after = cursor != null ? MessageSearchCursor.decode(cursor) : null;
 
-        // Determine if userId is vendor or user
-        boolean isVendor1 = chat.getVendor() != null && chat.getVendor().getId().equals(userId);
-        boolean isVendor2 = chat.getVendor2() != null && chat.getVendor2().getId().equals(userId);
-        boolean isUser = chat.getUser() != null && chat.getUser().getId().equals(userId);
+        List<String> chatIds = chatRepository.findChatIdsByParticipant(participantId);
+        if (chatIds.isEmpty()) {
+            return MessageSearchPageDTO.builder().hits(List.of()).hasMore(false).build();
+        }
 
-        if (!isVendor1 && !isVendor2 && !isUser) {
-            throw new RuntimeException("User is not a participant in this chat");
+        LocalDateTime since = searchWindowDays > 0 ? LocalDate.now().minusDays(searchWindowDays).atStartOfDay() : null;
+        List<MessageSearchHitDTO> hits = messageRepository.search(chatIds, query, since,
+                after != null ? after.getScore() : null,
+                after != null ? after.getMessageId() : null,
+                pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
         }
+        hits.forEach(hit -> hit.setSnippet(snippet(hit.getSnippet(), query)));
 
-        // Get all messages in chat
-        List<Message> messages = messageRepository.findByChat_IdOrderByCreatedAtAsc(chatId);
+        return MessageSearchPageDTO.builder()
+                .hits(hits)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? MessageSearchCursor.encode(hits.get(hits.size() - 1)) : null)
+                .build();
+    }
 
-        // Mark messages as seen if they were sent by the other participant
-        for (Message message : messages) {
-            if (!message.getSenderId().equals(userId) && 
-                message.getStatus() != Message.MessageStatus.SEEN) {
-                message.setStatus(Message.MessageStatus.SEEN);
-                messageRepository.save(message);
+    // Cut the content down to a window around the first query term it contains
+    private static String snippet(String content, String query) {
+        if (content == null || content.length() <= SNIPPET_LENGTH) {
+            return content;
+        }
+        String lowerContent = content.toLowerCase(Locale.ROOT);
+        int match = -1;
+        for (String term : query.toLowerCase(Locale.ROOT).split("[\\s\"-]+")) {
+            int index = term.isEmpty() ? -1 : lowerContent.indexOf(term);
+            if (index >= 0 && (match < 0 || index < match)) {
+                match = index;
             }
         }
+        int start = Math.max(0, Math.min(match - SNIPPET_LENGTH / 3, content.length() - SNIPPET_LENGTH));
+        int end = Math.min(content.length(), start + SNIPPET_LENGTH);
+        return (start > 0 ? "..." : "") + content.substring(start, end) + (end < content.length() ? "..." : "");
     }
 
-    public long getUnreadMessageCount(String chatId, String userId) {
-        // Verify chat exists
-        chatRepository.findById(chatId)
-                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+    public Optional<Message> getMessageById(String messageId) {
+        return messageRepository.findById(messageId);
+    }
+
+    /**
+     * Mark a chat as read by one participant: moves the participant's watermark on the chat
+     * and flips the status of the other side's messages, one update each.
+     */
+    public void markMessagesAsSeen(String chatId, String userId) {
+        LocalDateTime seenAt = LocalDateTime.now();
+        if (!chatRepository.markSeen(chatId, userId, seenAt)) {
+            if (!chatRepository.existsById(chatId)) {
+                throw new RuntimeException("Chat not found with id: " + chatId);
+            }
+            throw new RuntimeException("User is not a participant in this chat");
+        }
+        messageRepository.markSeen(chatId, userId, seenAt);
+        realtimePublisher.chatRead(chatId, userId, seenAt);
+    }
 
-        List<Message> unreadMessages = getUnreadMessages(chatId, userId);
-        return unreadMessages.size();
+    public long getUnreadMessageCount(String chatId, String userId) {
+        return messageRepository.countUnread(chatId, userId, getLastSeenAt(chatId, userId));
     }
 
     public List<Message> getUnreadMessages(String chatId, String userId) {
-        // Verify chat exists
-        chatRepository.findById(chatId)
-                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+        return messageRepository.findUnread(chatId, userId, getLastSeenAt(chatId, userId));
+    }
 
-        List<Message> allMessages = messageRepository.findByChat_IdOrderByCreatedAtAsc(chatId);
-        return allMessages.stream()
-                .filter(message -> !message.getSenderId().equals(userId) && 
-                                  message.getStatus() != Message.MessageStatus.SEEN)
-                .collect(Collectors.toList());
+    private LocalDateTime getLastSeenAt(String chatId, String userId) {
+        Chat chat = chatRepository.findLastSeen(chatId, userId)
+                .orElseThrow(() -> new RuntimeException("Chat not found with id: " + chatId));
+        return chat.getLastSeenAt() != null ? chat.getLastSeenAt().get(userId) : null;
     }
 }
 
@@ -0,0 +1,52 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/**
+ * Gives messages stored before change feeds existed an updatedAt equal to their createdAt,
+ * with one server-side update. The update scans every message, so once it has succeeded a marker
+ * in startup_tasks keeps later starts from running it again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageUpdatedAtBackfill {
+
+    private static final String MARKERS = "startup_tasks";
+    private static final String MARKER = "message-updated-at-backfill";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER)), MARKERS)) {
+                return;
+            }
+            long updated = mongoTemplate.updateMulti(Query.query(Criteria.where("updatedAt").exists(false)),
+                    AggregationUpdate.update().set("updatedAt").toValueOf(Fields.field("createdAt")),
+                    "messages").getModifiedCount();
+            mongoTemplate.save(new Document("_id", MARKER).append("completedAt", new Date()), MARKERS);
+            if (updated > 0) {
+                log.info("Set updatedAt on {} messages", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Message updatedAt backfill failed: {}", e.getMessage());
+        }
+    }
+}
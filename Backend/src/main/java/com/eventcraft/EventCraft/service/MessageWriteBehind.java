@@ -0,0 +1,477 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Optional write-behind store for chat messages (eventcraft.messages.write-behind.enabled).
+ * <p>
+ * When enabled, a message is acknowledged once it is appended and fsynced to a local journal segment
+ * (one fsync covers every sender waiting at the time, see awaitDurable); a background flusher then inserts queued messages into MongoDB in unordered bulk batches.
+ * A segment file is deleted when every message it holds is in MongoDB, and segments left over from
+ * a previous run are replayed on startup (messages already inserted are skipped as duplicate keys).
+ * A message MongoDB rejects for any other reason is appended to dead-letter.journal and the queue moves on;
+ * if another message already holds its client message id, the chat is told which one replaces it.
+ * Reads may lag behind sends by up to one flush interval; findPending lets an idempotent retry find a send
+ * that is still queued, so it is not journaled a second time under a new id.
+ * <p>
+ * When disabled, insert() writes straight to the repository.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageWriteBehind {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String DEAD_LETTER_FILE = "dead-letter.journal";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+    // The driver registry knows DBRef; records are read back with the same codec
+    private static final DocumentCodec CODEC = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    private final MessageRepository messageRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RealtimePublisher realtimePublisher;
+    private final RecentSendCache recentSendCache;
+
+    @Value("${eventcraft.messages.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${eventcraft.messages.write-behind.journal-dir:./data/message-journal}")
+    private String journalDir;
+
+    @Value("${eventcraft.messages.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${eventcraft.messages.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${eventcraft.messages.write-behind.segment-bytes:8388608}")
+    private long segmentBytes;
+
+    private final Deque<Entry> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Map<Long, AtomicInteger> pendingBySegment = new HashMap<>();
+    // Queued messages that carry a client message id, by sender and id, so a retry resolves to the queued send
+    private final Map<String, Document> pendingSends = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+    // Records appended to the journal and records known to be fsynced, for group commit
+    private final Object forceLock = new Object();
+    private long appendedSequence;
+    private volatile long durableSequence;
+
+    private Timer flushTimer;
+    private Counter deadLettered;
+    private ScheduledExecutorService flusher;
+    private FileChannel segment;
+    private long segmentId;
+
+    private record Entry(long segmentId, Document document) {
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("eventcraft.messages.write_behind.queue_depth", queueDepth, AtomicInteger::get)
+                .description("Messages acknowledged but not yet flushed to MongoDB")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("eventcraft.messages.write_behind.flush")
+                .description("Time to flush one batch of messages to MongoDB")
+                .register(meterRegistry);
+        deadLettered = Counter.builder("eventcraft.messages.write_behind.dead_lettered")
+                .description("Messages MongoDB rejected, moved out of the queue to the dead-letter file")
+                .register(meterRegistry);
+
+        Path dir = Path.of(journalDir);
+        Files.createDirectories(dir);
+        long lastSegment = replay(dir);
+        openSegment(lastSegment + 1);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            // Whatever is still queued stays in the journal and is replayed on the next start
+            while (!queue.isEmpty() && flush() > 0) {
+                // keep draining
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Final write-behind flush failed, {} messages remain in the journal: {}", queueDepth.get(), e.getMessage());
+        }
+        synchronized (journalLock) {
+            try {
+                // A sender still waiting on a group commit finds the segment closed and counts on this
+                segment.force(false);
+            } catch (IOException e) {
+                log.warn("Failed to sync journal segment {} on shutdown: {}", segmentId, e.getMessage());
+            }
+            closeSegment();
+        }
+    }
+
+    /**
+     * Store a new message and return it with its id set.
+     */
+    public Message insert(Message message) {
+        if (!enabled) {
+            return messageRepository.insert(message);
+        }
+        if (message.getId() == null) {
+            message.setId(new ObjectId().toHexString());
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(message, document);
+        byte[] line = (document.toJson(JSON, CODEC) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        long appendedTo;
+        long sequence;
+        synchronized (journalLock) {
+            try {
+                if (segment.size() + line.length > segmentBytes && segment.size() > 0) {
+                    // Forced before closing, so a group commit still waiting on the old segment has nothing left to sync
+                    segment.force(false);
+                    closeSegment();
+                    openSegment(segmentId + 1);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to journal message", e);
+            }
+            appendedTo = segmentId;
+            sequence = ++appendedSequence;
+            pendingBySegment.computeIfAbsent(appendedTo, id -> new AtomicInteger()).incrementAndGet();
+        }
+        try {
+            awaitDurable(sequence);
+        } catch (UncheckedIOException e) {
+            synchronized (journalLock) {
+                pendingBySegment.get(appendedTo).decrementAndGet();
+            }
+            throw e;
+        }
+        enqueue(new Entry(appendedTo, document));
+        queueDepth.incrementAndGet();
+        return message;
+    }
+
+    /**
+     * Group commit: return once the record appended as sequence is fsynced. The first sender to get here
+     * forces the segment for every record appended so far, outside journalLock so appends carry on meanwhile;
+     * the senders that queued up behind it find their records already covered and return without an fsync.
+     */
+    private void awaitDurable(long sequence) {
+        synchronized (forceLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long covered;
+            FileChannel channel;
+            synchronized (journalLock) {
+                covered = appendedSequence;
+                // If the record's segment has been rotated out since, it was forced before it closed
+                channel = segment;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated (and forced) between taking the channel and forcing it
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync message journal", e);
+            }
+            durableSequence = covered;
+        }
+    }
+
+    /**
+     * The message sent with this client message id that is acknowledged but not yet in MongoDB, if any.
+     */
+    public Optional<Message> findPending(String senderId, String clientMessageId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pendingSends.get(sendKey(senderId, clientMessageId)))
+                .map(document -> mongoTemplate.getConverter().read(Message.class, document));
+    }
+
+    private void enqueue(Entry entry) {
+        String clientMessageId = entry.document().getString("clientMessageId");
+        if (clientMessageId != null) {
+            pendingSends.put(sendKey(entry.document().getString("senderId"), clientMessageId), entry.document());
+        }
+        queue.addLast(entry);
+    }
+
+    private static String sendKey(String senderId, String clientMessageId) {
+        return senderId + "\n" + clientMessageId;
+    }
+
+    private void flushSafely() {
+        try {
+            while (flush() == maxBatch) {
+                // a full batch means more is waiting
+            }
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed, {} messages queued: {}", queueDepth.get(), e.getMessage());
+        }
+    }
+
+    /**
+     * Insert up to maxBatch queued messages with one bulk write. Returns the number flushed.
+     */
+    private int flush() {
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+        while (batch.size() < maxBatch && (entry = queue.pollFirst()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Stamp the change time when the message becomes visible, so change feeds cannot skip past it
+            Date flushedAt = new Date();
+            batch.forEach(flushed -> flushed.document().put("updatedAt", flushedAt));
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "messages");
+            bulk.insert(batch.stream().map(Entry::document).toList());
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // A rejected document would only be rejected again, so it leaves the queue instead of holding up the
+            // messages behind it. The one harmless rejection is a replay of a message that was already flushed
+            for (BulkWriteError error : e.getErrors()) {
+                Entry rejected = batch.get(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY && isFlushed(rejected)) {
+                    continue;
+                }
+                deadLetter(rejected, error.getCode() + ": " + error.getMessage());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    correct(rejected);
+                }
+            }
+        } catch (RuntimeException e) {
+            // MongoDB could not be reached: nothing behind this batch could be written either
+            requeue(batch);
+            throw e;
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        queueDepth.addAndGet(-batch.size());
+        release(batch);
+        return batch.size();
+    }
+
+    private void deadLetter(Entry entry, String error) {
+        String record = new Document("error", error).append("at", new Date()).append("message", entry.document())
+                .toJson(JSON, CODEC) + "\n";
+        synchronized (journalLock) {
+            try (FileChannel deadLetters = FileChannel.open(Path.of(journalDir, DEAD_LETTER_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    deadLetters.write(buffer);
+                }
+                deadLetters.force(false);
+            } catch (IOException e) {
+                log.error("Failed to dead-letter message, dropping it: {}", record, e);
+            }
+        }
+        deadLettered.increment();
+        // A retry must not be answered with a message that will never be stored
+        String clientMessageId = entry.document().getString("clientMessageId");
+        if (clientMessageId != null) {
+            recentSendCache.release(entry.document().getString("senderId"), clientMessageId, entry.document().get("_id").toString());
+        }
+        log.warn("Message {} rejected by MongoDB and moved to {}: {}", entry.document().get("_id"), DEAD_LETTER_FILE, error);
+    }
+
+    // Whether the rejected message itself is stored, rather than another message under the same unique key
+    private boolean isFlushed(Entry entry) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(entry.document().get("_id"))), "messages");
+    }
+
+    /**
+     * The message was acknowledged, and possibly pushed, under an id that will never be stored: another
+     * message holds its (senderId, clientMessageId), e.g. a retry that reached another instance. Tell the
+     * chat which stored message replaces it.
+     */
+    private void correct(Entry entry) {
+        Document rejected = entry.document();
+        String clientMessageId = rejected.getString("clientMessageId");
+        String replacedBy = null;
+        if (clientMessageId != null) {
+            Query holder = Query.query(Criteria.where("senderId").is(rejected.getString("senderId"))
+                    .and("clientMessageId").is(clientMessageId));
+            holder.fields().include("_id");
+            Document stored = mongoTemplate.findOne(holder, Document.class, "messages");
+            replacedBy = stored != null ? stored.get("_id").toString() : null;
+        }
+        realtimePublisher.messageRejected(rejected.getString("chatId"), rejected.get("_id").toString(), replacedBy);
+    }
+
+    private void requeue(List<Entry> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            queue.addFirst(batch.get(i));
+        }
+    }
+
+    // Delete the segments whose messages are all in MongoDB; the active one is truncated instead of deleted
+    private void release(List<Entry> batch) {
+        synchronized (journalLock) {
+            for (Entry flushed : batch) {
+                pendingBySegment.get(flushed.segmentId()).decrementAndGet();
+                String clientMessageId = flushed.document().getString("clientMessageId");
+                if (clientMessageId != null) {
+                    pendingSends.remove(sendKey(flushed.document().getString("senderId"), clientMessageId), flushed.document());
+                }
+            }
+            Iterator<Map.Entry<Long, AtomicInteger>> segments = pendingBySegment.entrySet().iterator();
+            while (segments.hasNext()) {
+                Map.Entry<Long, AtomicInteger> pending = segments.next();
+                if (pending.getValue().get() > 0) {
+                    continue;
+                }
+                segments.remove();
+                try {
+                    if (pending.getKey() == segmentId) {
+                        segment.truncate(0);
+                        segment.force(false);
+                    } else {
+                        Files.deleteIfExists(segmentPath(pending.getKey()));
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to release journal segment {}: {}", pending.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue the messages of every segment on disk. Returns the highest segment id found.
+     */
+    private long replay(Path dir) throws IOException {
+        List<Long> segmentIds = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segmentIds.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        Collections.sort(segmentIds);
+
+        int replayed = 0;
+        for (long id : segmentIds) {
+            int count = 0;
+            try (BufferedReader reader = Files.newBufferedReader(segmentPath(id), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        enqueue(new Entry(id, Document.parse(line, CODEC)));
+                        count++;
+                    } catch (RuntimeException e) {
+                        // A torn final line from a crash mid-append was never acknowledged
+                        log.warn("Skipping unreadable journal record in segment {}", id);
+                    }
+                }
+            }
+            if (count == 0) {
+                Files.deleteIfExists(segmentPath(id));
+            } else {
+                pendingBySegment.put(id, new AtomicInteger(count));
+                replayed += count;
+            }
+        }
+        queueDepth.addAndGet(replayed);
+        if (replayed > 0) {
+            log.info("Replaying {} journaled messages", replayed);
+        }
+        return segmentIds.isEmpty() ? 0 : segmentIds.get(segmentIds.size() - 1);
+    }
+
+    private void openSegment(long id) throws IOException {
+        segmentId = id;
+        segment = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void closeSegment() {
+        try {
+            segment.close();
+            AtomicInteger pending = pendingBySegment.get(segmentId);
+            if (pending == null || pending.get() == 0) {
+                Files.deleteIfExists(segmentPath(segmentId));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close journal segment {}: {}", segmentId, e.getMessage());
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return Path.of(journalDir, SEGMENT_PREFIX + String.format("%012d", id) + SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,217 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.MetricComparisonDTO;
+import com.eventcraft.EventCraft.entity.AdminDailyMetrics;
+import com.eventcraft.EventCraft.entity.MetricSample;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Daily counters stored in the metric_samples time-series collection (metaField = metric).
+ * MongoDB buckets the samples per metric and time range, so comparing two windows is one
+ * aggregation over the buckets in range, no matter how large the source collections grow.
+ * The series is derived from the admin_daily_metrics rollup by sync(), never written per event,
+ * so it lags the rollup by at most one sync interval (eventcraft.metrics.series-sync-ms); each sync
+ * only reads the rollup days changed since the previous one, and the samples of those days.
+ */
+@Service
+@RequiredArgsConstructor
+public class MetricSeriesService {
+
+    public static final String USERS = "users";
+    public static final String VENDORS = "vendors";
+    public static final String EVENTS = "events";
+    public static final String CONTRACTS = "contracts";
+    public static final String BOOKINGS = "bookings";
+    public static final String PAYMENTS = "payments";
+    public static final String REVENUE = "revenue";
+
+    public static final List<String> ALL_METRICS = List.of(USERS, VENDORS, EVENTS, CONTRACTS, BOOKINGS, PAYMENTS, REVENUE);
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile boolean collectionReady;
+
+    public enum ComparisonWindow {
+        LAST_7_DAYS, LAST_30_DAYS, MONTH_TO_DATE;
+
+        public static ComparisonWindow fromParam(String value) {
+            return switch (value == null ? "" : value.toLowerCase()) {
+                case "7d" -> LAST_7_DAYS;
+                case "30d" -> LAST_30_DAYS;
+                case "month" -> MONTH_TO_DATE;
+                default -> throw new RuntimeException("Invalid window. Must be 7d, 30d or month");
+            };
+        }
+    }
+
+    /**
+     * Compare each metric over the current window against the window of the same length before it.
+     */
+    public Map<String, MetricComparisonDTO> compare(Collection<String> metrics, ComparisonWindow window, LocalDate today) {
+        LocalDate currentFrom;
+        LocalDate previousFrom;
+        LocalDate previousTo;
+        switch (window) {
+            case LAST_7_DAYS -> {
+                currentFrom = today.minusDays(6);
+                previousFrom = today.minusDays(13);
+                previousTo = today.minusDays(7);
+            }
+            case LAST_30_DAYS -> {
+                currentFrom = today.minusDays(29);
+                previousFrom = today.minusDays(59);
+                previousTo = today.minusDays(30);
+            }
+            default -> {
+                // Month to date against the same days of the previous month
+                currentFrom = today.withDayOfMonth(1);
+                previousFrom = currentFrom.minusMonths(1);
+                previousTo = today.minusMonths(1);
+            }
+        }
+        return compare(metrics, currentFrom, today, previousFrom, previousTo);
+    }
+
+    public Map<String, MetricComparisonDTO> compare(Collection<String> metrics, LocalDate currentFrom, LocalDate currentTo,
+                                                    LocalDate previousFrom, LocalDate previousTo) {
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        metrics.forEach(metric -> totals.put(metric, new double[2]));
+
+        LocalDateTime rangeStart = previousFrom.atStartOfDay();
+        LocalDateTime rangeEnd = currentTo.plusDays(1).atStartOfDay();
+        LocalDateTime previousEnd = previousTo.plusDays(1).atStartOfDay();
+
+        TypedAggregation<MetricSample> aggregation = Aggregation.newAggregation(MetricSample.class,
+                Aggregation.match(Criteria.where("metric").in(metrics)
+                        .and("timestamp").gte(rangeStart).lt(rangeEnd)),
+                Aggregation.project("metric", "value")
+                        .and(ComparisonOperators.Gte.valueOf("timestamp").greaterThanEqualToValue(toDate(currentFrom.atStartOfDay())))
+                        .as("current")
+                        .and(ComparisonOperators.Lt.valueOf("timestamp").lessThanValue(toDate(previousEnd)))
+                        .as("previous"),
+                Aggregation.group("metric", "current", "previous").sum("value").as("total"));
+
+        if (collectionReady || mongoTemplate.collectionExists(MetricSample.class)) {
+            for (Document result : mongoTemplate.aggregate(aggregation, Document.class)) {
+                Document key = result.get("_id", Document.class);
+                double[] metricTotals = totals.get(key.getString("metric"));
+                if (metricTotals == null) {
+                    continue;
+                }
+                double total = ((Number) result.get("total")).doubleValue();
+                if (Boolean.TRUE.equals(key.getBoolean("current"))) {
+                    metricTotals[0] += total;
+                } else if (Boolean.TRUE.equals(key.getBoolean("previous"))) {
+                    metricTotals[1] += total;
+                }
+            }
+        }
+
+        Map<String, MetricComparisonDTO> comparisons = new LinkedHashMap<>();
+        totals.forEach((metric, metricTotals) -> comparisons.put(metric, MetricComparisonDTO.builder()
+                .metric(metric)
+                .currentFrom(currentFrom)
+                .currentTo(currentTo)
+                .previousFrom(previousFrom)
+                .previousTo(previousTo)
+                .current(metricTotals[0])
+                .previous(metricTotals[1])
+                .changePercent(changePercent(metricTotals[0], metricTotals[1]))
+                .build()));
+        return comparisons;
+    }
+
+    /**
+     * Bring the series in line with the given rollup days: for each metric and day whose samples do not add up to
+     * the rollup's counter, append one sample with the difference. Only the samples of those days are read, so
+     * a sync of the days changed since the last one costs the same however long the series grows.
+     * Samples are only ever added, never dropped or rewritten (time-series collections cannot be updated in
+     * place), so readers never see a partial series. Returns the number of samples appended.
+     */
+    public synchronized int sync(Collection<AdminDailyMetrics> days) {
+        if (days.isEmpty()) {
+            return 0;
+        }
+        ensureCollection();
+
+        // metric -> day -> wanted total, from the rollup
+        Map<String, Map<LocalDate, Double>> wanted = new HashMap<>();
+        for (AdminDailyMetrics day : days) {
+            LocalDate date = day.getDate() != null ? day.getDate() : LocalDate.parse(day.getId());
+            Map<String, Double> values = Map.of(USERS, (double) day.getNewUsers(), VENDORS, (double) day.getNewVendors(),
+                    EVENTS, (double) day.getNewEvents(), CONTRACTS, (double) day.getNewContracts(),
+                    BOOKINGS, (double) day.getBookings(), PAYMENTS, (double) day.getCompletedPayments(), REVENUE, day.getRevenue());
+            values.forEach((metric, value) -> wanted.computeIfAbsent(metric, key -> new HashMap<>()).put(date, value));
+        }
+        TreeSet<LocalDate> dates = new TreeSet<>(wanted.get(USERS).keySet());
+        LocalDate first = dates.first();
+        LocalDate last = dates.last();
+
+        // metric -> day -> sum of the samples stored for it, over the span of the given days only
+        Map<String, Map<LocalDate, Double>> stored = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(first.atStartOfDay()).lt(last.plusDays(1).atStartOfDay())),
+                Aggregation.stage(new Document("$group", new Document("_id", new Document("metric", "$metric")
+                        .append("day", new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                                .append("date", "$timestamp")
+                                .append("timezone", ZoneId.systemDefault().getId()))))
+                        .append("total", new Document("$sum", "$value")))));
+        for (Document result : mongoTemplate.aggregate(aggregation, MetricSample.class, Document.class)) {
+            Document key = result.get("_id", Document.class);
+            stored.computeIfAbsent(key.getString("metric"), metric -> new HashMap<>())
+                    .put(LocalDate.parse(key.getString("day")), ((Number) result.get("total")).doubleValue());
+        }
+
+        List<MetricSample> samples = new ArrayList<>();
+        for (String metric : ALL_METRICS) {
+            Map<LocalDate, Double> want = wanted.getOrDefault(metric, Map.of());
+            Map<LocalDate, Double> have = stored.getOrDefault(metric, Map.of());
+            for (LocalDate date : dates) {
+                addSample(samples, metric, date.atStartOfDay(), want.getOrDefault(date, 0.0) - have.getOrDefault(date, 0.0));
+            }
+        }
+        if (!samples.isEmpty()) {
+            mongoTemplate.insertAll(samples);
+        }
+        return samples.size();
+    }
+
+    private void addSample(List<MetricSample> samples, String metric, LocalDateTime timestamp, double value) {
+        // Revenue sums may differ by rounding only
+        if (Math.abs(value) > 1e-6) {
+            samples.add(MetricSample.builder().metric(metric).timestamp(timestamp).value(value).build());
+        }
+    }
+
+    // An insert into a missing collection would create a regular one, so create the time-series collection first
+    private synchronized void ensureCollection() {
+        if (collectionReady) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(MetricSample.class)) {
+            mongoTemplate.createCollection(MetricSample.class);
+        }
+        collectionReady = true;
+    }
+
+    public static double changePercent(double current, double previous) {
+        double rate = previous > 0 ? ((current - previous) / previous) * 100 : 0;
+        return Math.round(rate * 100.0) / 100.0;
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
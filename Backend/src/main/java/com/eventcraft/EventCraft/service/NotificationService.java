@@ -16,6 +16,7 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final RealtimePublisher realtimePublisher;
 
     /**
      * Create a notification for a user
@@ -36,7 +37,9 @@ public class NotificationService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return notificationRepository.save(notification);
+        Notification savedNotification = notificationRepository.save(notification);
+        realtimePublisher.notificationCreated(savedNotification);
+        return savedNotification;
     }
 
     /**
@@ -16,6 +16,7 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final ContractRepository contractRepository;
+    private final DailyMetricsService dailyMetricsService;
 
     public Payment createPayment(String contractId, Double amount, Payment.PaymentMethod paymentMethod) {
         Optional<Contract> contractOpt = contractRepository.findById(contractId);
@@ -30,7 +31,9 @@ public class PaymentService {
                 .paymentStatus(Payment.PaymentStatus.COMPLETED)
                 .build();
 
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        dailyMetricsService.recordPaymentCompleted(savedPayment);
+        return savedPayment;
     }
 
     public List<Payment> getPaymentsByContract(String contractId) {
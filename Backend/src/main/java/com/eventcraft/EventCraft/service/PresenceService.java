@@ -0,0 +1,154 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.dto.PresenceDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online and typing state, kept in memory with TTL expiry and never written to MongoDB.
+ * A heartbeat or typing ping only stamps a map entry and marks it dirty; a flush every
+ * eventcraft.realtime.presence.flush-ms expires stale entries and pushes one event per participant
+ * or chat whose state changed, so repeated pings within a flush cost a map write each.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceService {
+
+    private final RealtimePublisher realtimePublisher;
+    private final MeterRegistry meterRegistry;
+
+    // participantId -> last heartbeat (epoch millis)
+    private final Map<String, Long> heartbeats = new ConcurrentHashMap<>();
+    // chatId -> participantId -> typing expiry (epoch millis)
+    private final Map<String, Map<String, Long>> typing = new ConcurrentHashMap<>();
+    private final Set<String> cameOnline = ConcurrentHashMap.newKeySet();
+    private final Set<String> typingChanged = ConcurrentHashMap.newKeySet();
+
+    @Value("${eventcraft.realtime.presence.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${eventcraft.realtime.presence.typing-ttl-ms:6000}")
+    private long typingTtlMs;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("eventcraft.presence.online", heartbeats, Map::size)
+                .description("Participants with a heartbeat within the presence TTL")
+                .register(meterRegistry);
+    }
+
+    public void heartbeat(String participantId) {
+        if (heartbeats.put(participantId, System.currentTimeMillis()) == null) {
+            cameOnline.add(participantId);
+        }
+    }
+
+    /**
+     * Start or stop typing in a chat. Typing also counts as a heartbeat and lapses on its own after the typing TTL.
+     */
+    public void setTyping(String chatId, String participantId, boolean isTyping) {
+        if (isTyping) {
+            heartbeat(participantId);
+            Map<String, Long> chatTyping = typing.computeIfAbsent(chatId, key -> new ConcurrentHashMap<>());
+            if (chatTyping.put(participantId, System.currentTimeMillis() + typingTtlMs) == null) {
+                typingChanged.add(chatId);
+            }
+        } else {
+            Map<String, Long> chatTyping = typing.get(chatId);
+            if (chatTyping != null && chatTyping.remove(participantId) != null) {
+                typingChanged.add(chatId);
+            }
+        }
+    }
+
+    public List<PresenceDTO> getPresence(Collection<String> participantIds) {
+        long now = System.currentTimeMillis();
+        List<PresenceDTO> presence = new ArrayList<>(participantIds.size());
+        for (String participantId : participantIds) {
+            Long last = heartbeats.get(participantId);
+            presence.add(PresenceDTO.builder()
+                    .participantId(participantId)
+                    .online(last != null && now - last <= ttlMs)
+                    .lastActiveAt(last != null ? toLocalDateTime(last) : null)
+                    .build());
+        }
+        return presence;
+    }
+
+    public Set<String> getTyping(String chatId) {
+        Map<String, Long> chatTyping = typing.get(chatId);
+        if (chatTyping == null) {
+            return Set.of();
+        }
+        long now = System.currentTimeMillis();
+        Set<String> participants = new TreeSet<>();
+        chatTyping.forEach((participantId, expiresAt) -> {
+            if (expiresAt > now) {
+                participants.add(participantId);
+            }
+        });
+        return participants;
+    }
+
+    @Scheduled(fixedDelayString = "${eventcraft.realtime.presence.flush-ms:1000}")
+    public void flush() {
+        try {
+            long now = System.currentTimeMillis();
+            List<PresenceDTO> changes = new ArrayList<>();
+
+            for (Iterator<String> it = cameOnline.iterator(); it.hasNext(); ) {
+                String participantId = it.next();
+                it.remove();
+                Long last = heartbeats.get(participantId);
+                if (last != null) {
+                    changes.add(PresenceDTO.builder().participantId(participantId).online(true)
+                            .lastActiveAt(toLocalDateTime(last)).build());
+                }
+            }
+            for (Map.Entry<String, Long> entry : heartbeats.entrySet()) {
+                long last = entry.getValue();
+                // Only remove the entry if no heartbeat replaced it meanwhile
+                if (now - last > ttlMs && heartbeats.remove(entry.getKey(), last)) {
+                    changes.add(PresenceDTO.builder().participantId(entry.getKey()).online(false)
+                            .lastActiveAt(toLocalDateTime(last)).build());
+                }
+            }
+
+            for (Map.Entry<String, Map<String, Long>> entry : typing.entrySet()) {
+                Map<String, Long> chatTyping = entry.getValue();
+                if (chatTyping.entrySet().removeIf(participant -> participant.getValue() <= now)) {
+                    typingChanged.add(entry.getKey());
+                }
+                if (chatTyping.isEmpty()) {
+                    typing.remove(entry.getKey(), chatTyping);
+                }
+            }
+
+            changes.forEach(realtimePublisher::presenceChanged);
+            for (Iterator<String> it = typingChanged.iterator(); it.hasNext(); ) {
+                String chatId = it.next();
+                it.remove();
+                realtimePublisher.typingChanged(chatId, getTyping(chatId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Presence flush failed: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,17 @@
+package com.eventcraft.EventCraft.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a sender or client address has used up its request budget; controllers answer 429.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests. Try again in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
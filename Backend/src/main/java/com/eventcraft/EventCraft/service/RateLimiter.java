@@ -0,0 +1,169 @@
+package com.eventcraft.EventCraft.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets for message sends and chat creation, keyed by sender id and by client address.
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (the generic cell
+ * rate algorithm), so taking a token is one compare-and-set and needs no lock.
+ * Full buckets carry no state and are swept away; beyond eventcraft.ratelimit.max-keys buckets are evicted.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    public enum Action {
+        SEND_MESSAGE("messages"), CREATE_CHAT("chats");
+
+        private final String metricTag;
+
+        Action(String metricTag) {
+            this.metricTag = metricTag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    // "action|sender|id" or "action|ip|address" -> nanoTime at which the bucket is full again
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Replaced in tests
+    LongSupplier clock = System::nanoTime;
+
+    @Value("${eventcraft.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${eventcraft.ratelimit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${eventcraft.ratelimit.messages.per-sender.capacity:20}")
+    private int messageSenderCapacity;
+
+    @Value("${eventcraft.ratelimit.messages.per-sender.per-minute:60}")
+    private int messageSenderPerMinute;
+
+    @Value("${eventcraft.ratelimit.messages.per-ip.capacity:100}")
+    private int messageIpCapacity;
+
+    @Value("${eventcraft.ratelimit.messages.per-ip.per-minute:300}")
+    private int messageIpPerMinute;
+
+    @Value("${eventcraft.ratelimit.chats.per-sender.capacity:5}")
+    private int chatSenderCapacity;
+
+    @Value("${eventcraft.ratelimit.chats.per-sender.per-minute:10}")
+    private int chatSenderPerMinute;
+
+    @Value("${eventcraft.ratelimit.chats.per-ip.capacity:30}")
+    private int chatIpCapacity;
+
+    @Value("${eventcraft.ratelimit.chats.per-ip.per-minute:60}")
+    private int chatIpPerMinute;
+
+    /**
+     * Take one token from the sender's bucket and one from the address's bucket, or throw
+     * RateLimitExceededException when either is empty. A null sender or address is not limited.
+     * When the address's bucket is empty the sender's token is given back, so a rejected request costs nothing.
+     */
+    public void acquire(Action action, String senderId, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        boolean messages = action == Action.SEND_MESSAGE;
+        long senderInterval = interval(messages ? messageSenderPerMinute : chatSenderPerMinute);
+        AtomicLong senderBucket = null;
+        if (senderId != null) {
+            senderBucket = take(action, "sender", senderId, messages ? messageSenderCapacity : chatSenderCapacity, senderInterval);
+        }
+        if (clientAddress != null) {
+            try {
+                take(action, "ip", clientAddress, messages ? messageIpCapacity : chatIpCapacity,
+                        interval(messages ? messageIpPerMinute : chatIpPerMinute));
+            } catch (RateLimitExceededException e) {
+                if (senderBucket != null) {
+                    senderBucket.addAndGet(-senderInterval);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static long interval(int perMinute) {
+        return TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+    }
+
+    private AtomicLong take(Action action, String keyType, String id, int capacity, long interval) {
+        long tolerance = interval * (Math.max(capacity, 1) - 1);
+        AtomicLong bucket = bucket(action.name() + "|" + keyType + "|" + id);
+        while (true) {
+            long now = clock.getAsLong();
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            if (start - now > tolerance) {
+                Counter.builder("eventcraft.ratelimit.rejected")
+                        .description("Requests rejected by the rate limiter")
+                        .tag("action", action.metricTag)
+                        .tag("key", keyType)
+                        .register(meterRegistry)
+                        .increment();
+                long waitNanos = start - now - tolerance;
+                long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+                throw new RateLimitExceededException(Math.max(1, (waitNanos + nanosPerSecond - 1) / nanosPerSecond));
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                return bucket;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evict();
+        }
+        // A new bucket starts full
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(clock.getAsLong()));
+    }
+
+    /**
+     * Drop buckets that have refilled, which behave exactly like absent ones.
+     */
+    @Scheduled(fixedDelayString = "${eventcraft.ratelimit.sweep-ms:60000}")
+    public void sweep() {
+        long now = clock.getAsLong();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    // Over the cap: sweep, then drop arbitrary buckets until a tenth of the room is free again
+    private synchronized void evict() {
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        sweep();
+        int target = maxKeys - Math.max(1, maxKeys / 10);
+        Iterator<String> keys = buckets.keySet().iterator();
+        while (buckets.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
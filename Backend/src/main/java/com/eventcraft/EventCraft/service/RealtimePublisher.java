@@ -0,0 +1,211 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.dto.MessageView;
+import com.eventcraft.EventCraft.dto.PresenceDTO;
+import com.eventcraft.EventCraft.dto.RealtimeEventDTO;
+import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.entity.Notification;
+import com.eventcraft.EventCraft.repository.ChatRepository;
+import com.eventcraft.EventCraft.repository.MessageRepository;
+import com.eventcraft.EventCraft.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pushes chat and notification events to STOMP subscribers and SSE streams.
+ * Publishing runs off the request thread, and a failed push never affects the write that caused it:
+ * the polling endpoints remain the fallback.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RealtimePublisher {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SseHub sseHub;
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final NotificationRepository notificationRepository;
+
+    public static String chatTopic(String chatId) {
+        return "chats/" + chatId;
+    }
+
+    public static String participantTopic(String participantId) {
+        return "participants/" + participantId;
+    }
+
+    public static String presenceTopic(String participantId) {
+        return "presence/" + participantId;
+    }
+
+    /**
+     * Publish a new message to the chat, then the new unread count to every other participant.
+     */
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    public void messageCreated(Chat chat, Message message) {
+        try {
+            MessageView view = MessageView.builder()
+                    .id(message.getId())
+                    .chatId(chat.getId())
+                    .senderId(message.getSenderId())
+                    .senderType(message.getSenderType())
+                    .content(message.getContent())
+                    .status(message.getStatus())
+                    .createdAt(message.getCreatedAt())
+                    .build();
+            publish(chatTopic(chat.getId()), RealtimeEventDTO.builder()
+                    .type("MESSAGE")
+                    .chatId(chat.getId())
+                    .data(view)
+                    .build());
+
+            for (String participantId : participantIds(chat)) {
+                if (participantId.equals(message.getSenderId())) {
+                    continue;
+                }
+                publishUnreadCount(chat.getId(), participantId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Withdraw a message that was acknowledged but could not be stored, naming the stored message that replaces
+     * it when there is one. Called from the write-behind flush, which already runs off the request thread.
+     */
+    public void messageRejected(String chatId, String messageId, String replacedById) {
+        try {
+            Map<String, String> data = new HashMap<>();
+            data.put("id", messageId);
+            data.put("replacedById", replacedById);
+            publish(chatTopic(chatId), RealtimeEventDTO.builder()
+                    .type("MESSAGE_REJECTED")
+                    .chatId(chatId)
+                    .data(data)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish rejection of message {}: {}", messageId, e.getMessage());
+        }
+    }
+
+    /**
+     * Tell the chat that a participant read it, and reset that participant's unread badge.
+     */
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    public void chatRead(String chatId, String participantId, LocalDateTime seenAt) {
+        try {
+            publish(chatTopic(chatId), RealtimeEventDTO.builder()
+                    .type("READ")
+                    .chatId(chatId)
+                    .data(Map.of("participantId", participantId, "seenAt", seenAt))
+                    .build());
+            publish(participantTopic(participantId), RealtimeEventDTO.builder()
+                    .type("UNREAD_COUNT")
+                    .chatId(chatId)
+                    .unreadCount(0L)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish read receipt for chat {}: {}", chatId, e.getMessage());
+        }
+    }
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    public void notificationCreated(Notification notification) {
+        try {
+            String userId = notification.getUser().getId();
+            // The recipient is implied by the topic; leave the user document out of the payload
+            Notification payload = Notification.builder()
+                    .id(notification.getId())
+                    .type(notification.getType())
+                    .title(notification.getTitle())
+                    .description(notification.getDescription())
+                    .message(notification.getMessage())
+                    .actionUrl(notification.getActionUrl())
+                    .read(notification.getRead())
+                    .createdAt(notification.getCreatedAt())
+                    .build();
+            publish(participantTopic(userId), RealtimeEventDTO.builder()
+                    .type("NOTIFICATION")
+                    .unreadCount(notificationRepository.countByUser_IdAndReadFalse(userId))
+                    .data(payload)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish notification {}: {}", notification.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Publish a participant going online or offline to everyone watching them.
+     * Called from the presence flush, which already batches and runs off the request thread.
+     */
+    public void presenceChanged(PresenceDTO presence) {
+        try {
+            publish(presenceTopic(presence.getParticipantId()), RealtimeEventDTO.builder()
+                    .type("PRESENCE")
+                    .data(presence)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish presence of {}: {}", presence.getParticipantId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Publish who is typing in a chat, as a full set so a missed event heals on the next one.
+     */
+    public void typingChanged(String chatId, Set<String> participantIds) {
+        try {
+            publish(chatTopic(chatId), RealtimeEventDTO.builder()
+                    .type("TYPING")
+                    .chatId(chatId)
+                    .data(participantIds)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish typing state of chat {}: {}", chatId, e.getMessage());
+        }
+    }
+
+    private void publishUnreadCount(String chatId, String participantId) {
+        LocalDateTime lastSeenAt = chatRepository.findLastSeen(chatId, participantId)
+                .map(chat -> chat.getLastSeenAt() != null ? chat.getLastSeenAt().get(participantId) : null)
+                .orElse(null);
+        publish(participantTopic(participantId), RealtimeEventDTO.builder()
+                .type("UNREAD_COUNT")
+                .chatId(chatId)
+                .unreadCount(messageRepository.countUnread(chatId, participantId, lastSeenAt))
+                .build());
+    }
+
+    private void publish(String topic, RealtimeEventDTO event) {
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + topic, event);
+        sseHub.send(topic, event.getType(), event);
+    }
+
+    private static Set<String> participantIds(Chat chat) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (chat.getVendor() != null) {
+            ids.add(chat.getVendor().getId());
+        }
+        if (chat.getUser() != null) {
+            ids.add(chat.getUser().getId());
+        }
+        if (chat.getVendor2() != null) {
+            ids.add(chat.getVendor2().getId());
+        }
+        return ids;
+    }
+}
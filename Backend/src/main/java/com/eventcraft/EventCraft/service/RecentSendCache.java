@@ -0,0 +1,85 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Least recently used map of (senderId, clientMessageId) to the send made with it.
+ * Answers a retried send without a database read, and claims the key while the first send is
+ * still in flight so a concurrent retry waits for that send instead of storing the message twice.
+ * A claim resolves to the stored message, or to null if the send failed and the key was released.
+ */
+@Component
+public class RecentSendCache {
+
+    private final Map<String, Claim> sends;
+
+    private record Claim(Message message, CompletableFuture<Message> result) {
+    }
+
+    public RecentSendCache(@Value("${eventcraft.messages.idempotency-cache-size:10000}") int maxSize) {
+        this.sends = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claim> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * The stored message sent with this client message id, or null if there is none or it is still in flight.
+     */
+    public synchronized Message get(String senderId, String clientMessageId) {
+        Claim claim = sends.get(key(senderId, clientMessageId));
+        return claim != null && claim.result().isDone() ? claim.result().getNow(null) : null;
+    }
+
+    /**
+     * Claim the key for a message about to be stored. Returns null when claimed, otherwise the result of
+     * the send already holding the key, for the caller to wait on.
+     */
+    public synchronized CompletableFuture<Message> claim(Message message) {
+        Claim existing = sends.putIfAbsent(key(message.getSenderId(), message.getClientMessageId()),
+                new Claim(message, new CompletableFuture<>()));
+        return existing != null ? existing.result() : null;
+    }
+
+    /**
+     * The claimed message is stored: answer the retries waiting on it, and later ones.
+     */
+    public synchronized void stored(Message message) {
+        Claim claim = sends.get(key(message.getSenderId(), message.getClientMessageId()));
+        if (claim != null && claim.message() == message) {
+            claim.result().complete(message);
+        }
+    }
+
+    /**
+     * Drop the claim of a message that was not stored, or that was stored and then rejected.
+     * Retries waiting on it get null and look for the message again.
+     */
+    public synchronized void release(Message message) {
+        release(message.getSenderId(), message.getClientMessageId(), message.getId());
+    }
+
+    /**
+     * Drop the claim for the key if it is held by the message with this id.
+     */
+    public synchronized void release(String senderId, String clientMessageId, String messageId) {
+        String key = key(senderId, clientMessageId);
+        Claim claim = sends.get(key);
+        if (claim != null && messageId != null && messageId.equals(claim.message().getId())) {
+            sends.remove(key);
+            claim.result().complete(null);
+        }
+    }
+
+    private static String key(String senderId, String clientMessageId) {
+        return senderId + "\n" + clientMessageId;
+    }
+}
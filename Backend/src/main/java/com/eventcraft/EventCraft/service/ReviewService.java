@@ -4,6 +4,7 @@ import com.eventcraft.EventCraft.dto.ReviewDTO;
 import com.eventcraft.EventCraft.entity.Review;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.entity.Vendor;
+import com.eventcraft.EventCraft.repository.DbRefBatchLoader;
 import com.eventcraft.EventCraft.repository.ReviewRepository;
 import com.eventcraft.EventCraft.repository.UserRepository;
 import com.eventcraft.EventCraft.repository.VendorRepository;
@@ -21,6 +22,7 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final VendorRepository vendorRepository;
     private final UserRepository userRepository;
+    private final DbRefBatchLoader dbRefBatchLoader;
 
     public Review createReview(String userId, ReviewDTO reviewDTO) {
         // Find user and vendor
@@ -92,11 +94,11 @@ public class ReviewService {
     }
 
     public List<Review> getReviewsByVendor(String vendorId) {
-        return reviewRepository.findByVendor_Id(vendorId);
+        return dbRefBatchLoader.findByReference(Review.class, "vendor", vendorId);
     }
 
     public List<Review> getReviewsByUser(String userId) {
-        return reviewRepository.findByUser_Id(userId);
+        return dbRefBatchLoader.findByReference(Review.class, "user", userId);
     }
 
     public Optional<Review> getReviewById(String reviewId) {
@@ -0,0 +1,69 @@
+package com.eventcraft.EventCraft.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Open Server-Sent Events streams, keyed by the same topics as the STOMP broker
+ * ("chats/{chatId}", "participants/{participantId}"). Used by clients that cannot open a WebSocket.
+ */
+@Slf4j
+@Component
+public class SseHub {
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @Value("${eventcraft.realtime.sse-timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public SseEmitter subscribe(String topic) {
+        return subscribe(List.of(topic));
+    }
+
+    /**
+     * One stream carrying the events of several topics.
+     */
+    public SseEmitter subscribe(Collection<String> topics) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        for (String topic : topics) {
+            emitters.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(emitter);
+        }
+        Runnable removeAll = () -> topics.forEach(topic -> remove(topic, emitter));
+        emitter.onCompletion(removeAll);
+        emitter.onTimeout(removeAll);
+        emitter.onError(e -> removeAll.run());
+        return emitter;
+    }
+
+    public void send(String topic, String eventName, Object payload) {
+        List<SseEmitter> topicEmitters = emitters.get(topic);
+        if (topicEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : topicEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports completion later, drop it now
+                remove(topic, emitter);
+                log.debug("Dropped SSE subscriber on {}: {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    private void remove(String topic, SseEmitter emitter) {
+        emitters.computeIfPresent(topic, (key, topicEmitters) -> {
+            topicEmitters.remove(emitter);
+            return topicEmitters.isEmpty() ? null : topicEmitters;
+        });
+    }
+}
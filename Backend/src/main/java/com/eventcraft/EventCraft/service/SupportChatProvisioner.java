@@ -0,0 +1,148 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Creates Event Craft Support chats off the request thread: for each new user and vendor as they register,
+ * and once, on the first start after chats were provisioned this way, for accounts registered before.
+ * Each account is recorded in support_chat_provisioning before its chat is created and removed once it exists,
+ * so provisioning that failed, or never ran because the process stopped, is retried every retry-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SupportChatProvisioner {
+
+    private static final String PENDING = "support_chat_provisioning";
+    private static final String MARKERS = "startup_tasks";
+    private static final String BACKFILL_MARKER = "support-chat-backfill";
+    // An account still failing after this many attempts (deleted since, say) is left for an operator
+    private static final int MAX_ATTEMPTS = 20;
+
+    private static final String USER = "USER:";
+    private static final String VENDOR = "VENDOR:";
+
+    private final ChatService chatService;
+    private final SupportIdentityService supportIdentityService;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${eventcraft.chats.support-backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        provision(USER + event.getUser().getId());
+    }
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener
+    public void onVendorRegistered(VendorRegisteredEvent event) {
+        provision(VENDOR + event.getVendor().getId());
+    }
+
+    /**
+     * Runs after the pair key migration, so existing support chats are found by their key.
+     * Once it has gone through every account, a marker in startup_tasks keeps it from running again.
+     */
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ChatPairKeysMigratedEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(BACKFILL_MARKER)), MARKERS)) {
+                return;
+            }
+            Set<String> provisioned = new HashSet<>();
+            Query supportChats = Query.query(Criteria.where("pairKey").regex("^SYS:"));
+            supportChats.fields().include("pairKey");
+            try (var chats = mongoTemplate.stream(supportChats, Document.class, "chats")) {
+                chats.forEach(chat -> provisioned.add(chat.getString("pairKey")));
+            }
+
+            String supportVendorId = supportIdentityService.get().getSupportVendor().getId();
+            List<String> users = missing(Query.query(Criteria.where("role").ne(User.Role.ADMIN.name())), "users",
+                    userId -> !provisioned.contains(ChatPairKeys.userSupport(userId)));
+            List<String> vendors = missing(new Query(), "vendors",
+                    vendorId -> !vendorId.equals(supportVendorId) && !provisioned.contains(ChatPairKeys.vendorSupport(vendorId)));
+
+            // Accounts that fail stay pending and are picked up by retryPending
+            users.forEach(userId -> provision(USER + userId));
+            vendors.forEach(vendorId -> provision(VENDOR + vendorId));
+            mongoTemplate.save(new Document("_id", BACKFILL_MARKER).append("completedAt", new Date()), MARKERS);
+            int created = users.size() + vendors.size();
+            if (created > 0) {
+                log.info("Provisioned {} missing support chats", created);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Support chat backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retry the accounts whose support chat was not created, oldest first.
+     */
+    @Scheduled(initialDelayString = "${eventcraft.chats.support-retry-ms:300000}",
+            fixedDelayString = "${eventcraft.chats.support-retry-ms:300000}")
+    public void retryPending() {
+        try {
+            // Leave the ones registered in the last minute to their own attempt
+            Query pending = Query.query(Criteria.where("since").lt(new Date(System.currentTimeMillis() - 60_000))
+                            .and("attempts").lt(MAX_ATTEMPTS))
+                    .with(Sort.by("since"));
+            List<String> keys = mongoTemplate.find(pending, Document.class, PENDING).stream()
+                    .map(document -> document.getString("_id"))
+                    .toList();
+            keys.forEach(this::provision);
+        } catch (RuntimeException e) {
+            log.warn("Support chat retry failed: {}", e.getMessage());
+        }
+    }
+
+    // key is USER:<id> or VENDOR:<id>
+    private void provision(String key) {
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(key)),
+                    new Update().setOnInsert("since", new Date()).inc("attempts", 1), PENDING);
+            if (key.startsWith(USER)) {
+                chatService.getOrCreateEventCraftSupportChat(key.substring(USER.length()));
+            } else {
+                chatService.getOrCreateEventCraftSupportChatForVendor(key.substring(VENDOR.length()));
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(key)), PENDING);
+        } catch (RuntimeException e) {
+            log.warn("Failed to create support chat for {}, will retry: {}", key, e.getMessage());
+        }
+    }
+
+    private List<String> missing(Query query, String collection, Predicate<String> isMissing) {
+        query.fields().include("_id");
+        try (var documents = mongoTemplate.stream(query, Document.class, collection)) {
+            return documents.map(document -> document.get("_id").toString())
+                    .filter(isMissing)
+                    .toList();
+        }
+    }
+}
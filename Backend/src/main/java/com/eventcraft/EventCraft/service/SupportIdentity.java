@@ -0,0 +1,20 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.User;
+import com.eventcraft.EventCraft.entity.Vendor;
+import lombok.Getter;
+
+/**
+ * The Event Craft Support vendor and the admin account behind it. Resolved once and never mutated.
+ */
+@Getter
+public final class SupportIdentity {
+
+    private final User adminUser;
+    private final Vendor supportVendor;
+
+    SupportIdentity(User adminUser, Vendor supportVendor) {
+        this.adminUser = adminUser;
+        this.supportVendor = supportVendor;
+    }
+}
@@ -0,0 +1,107 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.entity.User;
+import com.eventcraft.EventCraft.entity.Vendor;
+import com.eventcraft.EventCraft.repository.UserRepository;
+import com.eventcraft.EventCraft.repository.VendorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolves the Event Craft Support vendor (and the admin user it belongs to) once, creating them
+ * on first run, and serves the cached result afterwards.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SupportIdentityService {
+
+    static final String SUPPORT_COMPANY_NAME = "Event Craft Support";
+
+    private final VendorRepository vendorRepository;
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final DailyMetricsService dailyMetricsService;
+
+    private volatile SupportIdentity identity;
+
+    /**
+     * Resolved in the background at startup; if that fails, the first call to get() resolves it instead.
+     */
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resolveOnStartup() {
+        try {
+            get();
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve the Event Craft Support identity at startup: {}", e.getMessage());
+        }
+    }
+
+    public SupportIdentity get() {
+        SupportIdentity resolved = identity;
+        if (resolved == null) {
+            synchronized (this) {
+                resolved = identity;
+                if (resolved == null) {
+                    resolved = resolve();
+                    identity = resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private SupportIdentity resolve() {
+        Vendor supportVendor = vendorRepository.findByCompanyName(SUPPORT_COMPANY_NAME)
+                .stream()
+                .findFirst()
+                .orElse(null);
+        if (supportVendor != null) {
+            return new SupportIdentity(supportVendor.getUser(), supportVendor);
+        }
+
+        // Find or create admin user first
+        User adminUser = userRepository.findByRole(User.Role.ADMIN)
+                .stream()
+                .findFirst()
+                .orElseGet(() -> {
+                    // Generate secure password for system support account
+                    String securePassword = passwordEncoder.encode("EventCraftSupport2024!");
+                    User defaultAdmin = User.builder()
+                            .username("eventcraft_support")
+                            .email("support@eventcraft.com")
+                            .fullName("Event Craft Support")
+                            .role(User.Role.ADMIN)
+                            .password(securePassword)
+                            .createdAt(LocalDateTime.now())
+                            .updatedAt(LocalDateTime.now())
+                            .build();
+                    User savedAdmin = userRepository.save(defaultAdmin);
+                    dailyMetricsService.recordUserCreated(savedAdmin);
+                    return savedAdmin;
+                });
+
+        // Create Event Craft Support vendor
+        supportVendor = Vendor.builder()
+                .user(adminUser)
+                .companyName(SUPPORT_COMPANY_NAME)
+                .serviceType("Customer Support")
+                .address("Online")
+                .approvalStatus(Vendor.ApprovalStatus.APPROVED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        Vendor savedVendor = vendorRepository.save(supportVendor);
+        dailyMetricsService.recordVendorCreated(savedVendor);
+        return new SupportIdentity(adminUser, savedVendor);
+    }
+}
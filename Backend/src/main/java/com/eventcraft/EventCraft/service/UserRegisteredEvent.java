@@ -0,0 +1,11 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class UserRegisteredEvent {
+    private final User user;
+}
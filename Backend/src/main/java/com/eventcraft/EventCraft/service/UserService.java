@@ -1,8 +1,10 @@
 package com.eventcraft.EventCraft.service;
 
+import com.eventcraft.EventCraft.dto.UserSummary;
 import com.eventcraft.EventCraft.entity.User;
 import com.eventcraft.EventCraft.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +16,8 @@ import java.util.Optional;
 public class UserService {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final DailyMetricsService dailyMetricsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
@@ -27,6 +31,10 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public List<UserSummary> getUserSummaries() {
+        return userRepository.findAllProjectedBy();
+    }
+
     public Optional<User> getUserById(String id) {
         return userRepository.findById(id);
     }
@@ -35,7 +43,10 @@ public class UserService {
         // Hash the password before saving
         String hashedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(hashedPassword);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        dailyMetricsService.recordUserCreated(savedUser);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser));
+        return savedUser;
     }
 
     public Optional<User> authenticateUser(String usernameOrEmail, String rawPassword) {
@@ -62,7 +73,10 @@ public class UserService {
     }
 
     public void deleteUser(String id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.deleteById(id);
+            dailyMetricsService.recordUserDeleted(user);
+        });
     }
 
     public User updateUser(String userId, User updatedUser) {
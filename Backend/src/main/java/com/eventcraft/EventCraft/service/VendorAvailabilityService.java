@@ -0,0 +1,224 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.config.AsyncConfig;
+import com.eventcraft.EventCraft.dto.VendorAvailabilityDTO;
+import com.eventcraft.EventCraft.entity.Event;
+import com.eventcraft.EventCraft.entity.VendorBookedDays;
+import com.eventcraft.EventCraft.repository.VendorBookedDaysRepository;
+import com.eventcraft.EventCraft.repository.VendorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Maintains vendor_booked_days: per vendor and year, a bitmap of the days covered by an event the vendor
+ * has a confirmed assignment for or a signed contract on. VendorBookedDaysListener queues a background refresh
+ * of a vendor whenever one of those changes; the index is built on startup while it is empty and rebuilt nightly.
+ * Availability reads then cost one small document per vendor and year instead of a scan of its bookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VendorAvailabilityService {
+
+    // 366 bits, enough for a leap year
+    static final int BYTES_PER_YEAR = 46;
+    // Longest range one availability request may cover: today up to the last selectable date
+    static final int MAX_RANGE_DAYS = CalendarService.MAX_DAYS_AHEAD + 1;
+    // Locks serializing refreshes, shared by vendors whose ids hash alike
+    private static final int REFRESH_LOCK_STRIPES = 64;
+
+    private final VendorBookedDaysRepository bookedDaysRepository;
+    private final VendorRepository vendorRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private final Set<String> queuedRefreshes = ConcurrentHashMap.newKeySet();
+    // Striped by vendor id, so the set of locks stays the same size however many vendors are refreshed
+    private final Object[] refreshLocks = Stream.generate(Object::new).limit(REFRESH_LOCK_STRIPES).toArray();
+
+    @Value("${eventcraft.vendors.availability.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            if (mongoTemplate.estimatedCount(VendorBookedDays.class) == 0) {
+                int vendors = rebuild();
+                log.info("Built booked days for {} vendors", vendors);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Vendor booked days rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Repairs whatever a failed or lost refresh left behind.
+     */
+    @Scheduled(cron = "${eventcraft.vendors.availability.rebuild-cron:0 0 4 * * *}")
+    public void rebuildNightly() {
+        try {
+            int vendors = rebuild();
+            log.info("Rebuilt booked days for {} vendors", vendors);
+        } catch (RuntimeException e) {
+            log.warn("Vendor booked days rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the booked days of every vendor with bookings, and of every vendor indexed as booked
+     * (whose bookings may since have gone). Returns the number of vendors.
+     */
+    public int rebuild() {
+        Set<String> vendorIds = new LinkedHashSet<>(bookedDaysRepository.findVendorIdsWithBookings());
+        vendorIds.addAll(mongoTemplate.findDistinct(new Query(), "vendorId", VendorBookedDays.class, String.class));
+        vendorIds.forEach(this::refresh);
+        return vendorIds.size();
+    }
+
+    /**
+     * Claim a background refresh of the vendor. Returns false when one is already queued: it has not read the
+     * vendor's bookings yet, so it will see the caller's write as well.
+     */
+    boolean queueRefresh(String vendorId) {
+        return queuedRefreshes.add(vendorId);
+    }
+
+    /**
+     * refresh() off the request thread, for a vendor claimed with queueRefresh.
+     */
+    @Async(AsyncConfig.TASK_EXECUTOR)
+    public void refreshQueued(String vendorId) {
+        // Unclaimed before reading, so a write from here on queues another refresh
+        queuedRefreshes.remove(vendorId);
+        try {
+            refresh(vendorId);
+        } catch (RuntimeException e) {
+            // The nightly rebuild corrects it
+            log.warn("Failed to refresh booked days of vendor {}: {}", vendorId, e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute one vendor's booked days from its confirmed assignments and signed contracts.
+     * Refreshes of one vendor run one at a time, so a refresh that read older bookings cannot write last
+     * (vendors sharing a lock stripe are serialized with it too).
+     */
+    public void refresh(String vendorId) {
+        synchronized (refreshLocks[Math.floorMod(vendorId.hashCode(), REFRESH_LOCK_STRIPES)]) {
+            bookedDaysRepository.replace(vendorId, bitmaps(bookedDaysRepository.findBookedEvents(vendorId)));
+        }
+    }
+
+    /**
+     * One bitmap per year the events touch, in the layout of VendorBookedDays.days.
+     */
+    static Map<Integer, byte[]> bitmaps(Collection<Event> events) {
+        Map<Integer, BitSet> years = new TreeMap<>();
+        for (Event event : events) {
+            LocalDate start = event.getStartDate();
+            LocalDate end = event.getEndDate();
+            if (start == null || end == null || end.isBefore(start)) {
+                continue;
+            }
+            // Split the event at year boundaries
+            for (int year = start.getYear(); year <= end.getYear(); year++) {
+                int first = year == start.getYear() ? start.getDayOfYear() : 1;
+                int last = year == end.getYear() ? end.getDayOfYear() : Year.of(year).length();
+                years.computeIfAbsent(year, key -> new BitSet(366)).set(first - 1, last);
+            }
+        }
+        Map<Integer, byte[]> bitmaps = new TreeMap<>();
+        years.forEach((year, days) -> bitmaps.put(year, Arrays.copyOf(days.toByteArray(), BYTES_PER_YEAR)));
+        return bitmaps;
+    }
+
+    public VendorAvailabilityDTO getAvailability(String vendorId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!vendorRepository.existsById(vendorId)) {
+            throw new RuntimeException("Vendor not found with id: " + vendorId);
+        }
+        DayBitmap booked = getBookedDays(vendorId, from, to);
+        return VendorAvailabilityDTO.builder()
+                .vendorId(vendorId)
+                .from(from)
+                .to(to)
+                .bookedDates(booked.days(true))
+                .availableDates(booked.days(false))
+                .build();
+    }
+
+    /**
+     * Vendors booked on a day, for filtering vendor listings.
+     */
+    public Set<String> getVendorIdsBookedOn(LocalDate day) {
+        return bookedDaysRepository.findVendorIdsBookedOn(day);
+    }
+
+    DayBitmap getBookedDays(String vendorId, LocalDate from, LocalDate to) {
+        DayBitmap booked = new DayBitmap(from, to);
+        bookedDaysRepository.findYears(vendorId, from.getYear(), to.getYear()).forEach(year -> mark(booked, year));
+        return booked;
+    }
+
+    /**
+     * The booked days of several vendors over the same range, read with one query.
+     * Vendors without bookings in the range get an empty bitmap.
+     */
+    Map<String, DayBitmap> getBookedDays(Collection<String> vendorIds, LocalDate from, LocalDate to) {
+        Map<String, DayBitmap> booked = new LinkedHashMap<>();
+        vendorIds.forEach(vendorId -> booked.put(vendorId, new DayBitmap(from, to)));
+        for (VendorBookedDays year : bookedDaysRepository.findYears(vendorIds, from.getYear(), to.getYear())) {
+            DayBitmap days = booked.get(year.getVendorId());
+            if (days != null) {
+                mark(days, year);
+            }
+        }
+        return booked;
+    }
+
+    static void mark(DayBitmap booked, VendorBookedDays year) {
+        if (year.getDays() == null) {
+            return;
+        }
+        BitSet days = BitSet.valueOf(year.getDays());
+        int length = Year.of(year.getYear()).length();
+        for (int bit = days.nextSetBit(0); bit >= 0 && bit < length; bit = days.nextSetBit(bit + 1)) {
+            LocalDate day = LocalDate.ofYearDay(year.getYear(), bit + 1);
+            booked.set(day, day);
+        }
+    }
+
+    static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range cannot be longer than " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
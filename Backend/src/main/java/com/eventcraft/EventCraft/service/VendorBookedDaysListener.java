@@ -0,0 +1,88 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.repository.VendorBookedDaysRepository;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Queues a refresh of the booked days of the vendors touched by a save or delete of an event, assignment or
+ * contract. The vendors of a delete are looked up before it runs and refreshed after it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VendorBookedDaysListener implements ApplicationListener<MongoMappingEvent<?>> {
+
+    private static final String EVENTS = "events";
+    private static final Set<String> BOOKINGS = Set.of("event_vendors", "contracts");
+
+    private static final ThreadLocal<Set<String>> DELETING = new ThreadLocal<>();
+
+    private final VendorAvailabilityService vendorAvailabilityService;
+    private final VendorBookedDaysRepository bookedDaysRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void onApplicationEvent(MongoMappingEvent<?> event) {
+        String collection = event.getCollectionName();
+        if (!EVENTS.equals(collection) && !BOOKINGS.contains(collection)) {
+            return;
+        }
+        try {
+            if (event instanceof AfterSaveEvent<?> saved && saved.getDocument() != null) {
+                refresh(affectedBy(collection, saved.getDocument()));
+            } else if (event instanceof BeforeDeleteEvent<?> deleting) {
+                DELETING.set(affectedByDelete(collection, deleting.getSource()));
+            } else if (event instanceof AfterDeleteEvent<?>) {
+                Set<String> vendorIds = DELETING.get();
+                DELETING.remove();
+                if (vendorIds != null) {
+                    refresh(vendorIds);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The index must never fail the business write; a rebuild corrects it
+            log.warn("Failed to update vendor booked days after a write to {}: {}", collection, e.getMessage());
+        }
+    }
+
+    private Set<String> affectedBy(String collection, Document document) {
+        if (EVENTS.equals(collection)) {
+            Object eventId = document.get("_id");
+            return eventId != null ? bookedDaysRepository.findVendorIdsByEvent(eventId.toString()) : Set.of();
+        }
+        // Any status or signature change can book or free the vendor
+        return document.get("vendor") instanceof DBRef ref && ref.getId() != null
+                ? Set.of(ref.getId().toString())
+                : Set.of();
+    }
+
+    private Set<String> affectedByDelete(String collection, Document query) {
+        BasicQuery deleted = new BasicQuery(query, new Document(EVENTS.equals(collection) ? "_id" : "vendor", 1));
+        Set<String> vendorIds = new LinkedHashSet<>();
+        for (Document document : mongoTemplate.find(deleted, Document.class, collection)) {
+            vendorIds.addAll(affectedBy(collection, document));
+        }
+        return vendorIds;
+    }
+
+    // In the background, so the write that triggered it does not wait for the vendor's bookings to be re-read
+    private void refresh(Set<String> vendorIds) {
+        vendorIds.stream()
+                .filter(vendorAvailabilityService::queueRefresh)
+                .forEach(vendorAvailabilityService::refreshQueued);
+    }
+}
@@ -0,0 +1,156 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Vendor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Ranks approved vendors for the admin dashboard.
+ * Bookings and revenue for every vendor come from one aggregation over contracts and payments,
+ * approved vendors are streamed through a bounded top-K heap, and the result is cached
+ * until the next scheduled refresh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VendorLeaderboardService {
+
+    // Sort by rating first, then by bookings
+    private static final Comparator<RankedVendor> RANKING = Comparator
+            .comparingDouble(RankedVendor::getRating)
+            .thenComparingLong(RankedVendor::getBookings)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${eventcraft.admin.leaderboard.size:10}")
+    private int leaderboardSize;
+
+    private volatile List<Map<String, Object>> cachedLeaderboard;
+
+    public List<Map<String, Object>> getLeaderboard() {
+        List<Map<String, Object>> leaderboard = cachedLeaderboard;
+        return leaderboard != null ? leaderboard : refresh();
+    }
+
+    /**
+     * Drop the cached ranking, e.g. after a vendor is approved or rejected.
+     */
+    public void invalidate() {
+        cachedLeaderboard = null;
+    }
+
+    @Scheduled(fixedDelayString = "${eventcraft.admin.leaderboard.refresh-ms:300000}",
+            initialDelayString = "${eventcraft.admin.leaderboard.refresh-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Vendor leaderboard refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized List<Map<String, Object>> refresh() {
+        Map<String, Long> bookingsByVendor = new HashMap<>();
+        Map<String, Double> revenueByVendor = new HashMap<>();
+        for (Document stats : mongoTemplate.aggregate(vendorStatsAggregation(), "contracts", Document.class)) {
+            String vendorId = String.valueOf(stats.get("_id"));
+            bookingsByVendor.put(vendorId, ((Number) stats.get("totalBookings")).longValue());
+            revenueByVendor.put(vendorId, ((Number) stats.get("totalRevenue")).doubleValue());
+        }
+
+        // Only the fields shown on the dashboard, so no vendor DBRefs are resolved
+        Query approved = Query.query(Criteria.where("approvalStatus").is(Vendor.ApprovalStatus.APPROVED));
+        approved.fields().include("companyName", "serviceType", "rating", "address", "mainPhotoURL");
+
+        int size = Math.max(leaderboardSize, 1);
+        PriorityQueue<RankedVendor> heap = new PriorityQueue<>(size + 1, RANKING.reversed());
+        try (Stream<Vendor> vendors = mongoTemplate.stream(approved, Vendor.class)) {
+            vendors.forEach(vendor -> {
+                heap.offer(new RankedVendor(vendor,
+                        bookingsByVendor.getOrDefault(vendor.getId(), 0L),
+                        revenueByVendor.getOrDefault(vendor.getId(), 0.0)));
+                if (heap.size() > size) {
+                    heap.poll(); // Evict the lowest ranked vendor
+                }
+            });
+        }
+
+        List<RankedVendor> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING);
+        List<Map<String, Object>> leaderboard = ranked.stream().map(this::toMap).toList();
+        cachedLeaderboard = leaderboard;
+        return leaderboard;
+    }
+
+    /**
+     * Signed contracts and completed payments grouped by vendor in one pass.
+     * Payments are joined to their contract by _id to find the vendor they belong to.
+     */
+    private Aggregation vendorStatsAggregation() {
+        Document contractSide = new Document("$project", new Document("vendorId", "$vendor.$id")
+                .append("bookings", new Document("$cond", List.of(new Document("$eq", List.of("$signed", true)), 1, 0)))
+                .append("revenue", new Document("$literal", 0)));
+
+        List<Document> paymentSide = List.of(
+                new Document("$match", new Document("paymentStatus", "COMPLETED")),
+                new Document("$lookup", new Document("from", "contracts")
+                        .append("localField", "contract.$id")
+                        .append("foreignField", "_id")
+                        .append("as", "contract")),
+                new Document("$project", new Document("vendorId", new Document("$arrayElemAt", List.of("$contract.vendor.$id", 0)))
+                        .append("bookings", new Document("$literal", 0))
+                        .append("revenue", new Document("$ifNull", List.of("$amount", 0)))));
+
+        return Aggregation.newAggregation(
+                Aggregation.stage(new Document("$match", new Document("vendor", new Document("$ne", null)))),
+                Aggregation.stage(contractSide),
+                Aggregation.stage(new Document("$unionWith", new Document("coll", "payments").append("pipeline", paymentSide))),
+                Aggregation.stage(new Document("$match", new Document("vendorId", new Document("$ne", null)))),
+                Aggregation.stage(new Document("$group", new Document("_id", "$vendorId")
+                        .append("totalBookings", new Document("$sum", "$bookings"))
+                        .append("totalRevenue", new Document("$sum", "$revenue")))));
+    }
+
+    private Map<String, Object> toMap(RankedVendor ranked) {
+        Vendor vendor = ranked.getVendor();
+        Map<String, Object> vendorData = new HashMap<>();
+        vendorData.put("id", vendor.getId());
+        vendorData.put("companyName", vendor.getCompanyName());
+        vendorData.put("serviceType", vendor.getServiceType());
+        vendorData.put("rating", ranked.getRating());
+        vendorData.put("address", vendor.getAddress());
+        vendorData.put("mainPhotoURL", vendor.getMainPhotoURL());
+        vendorData.put("totalBookings", ranked.getBookings());
+        vendorData.put("totalRevenue", ranked.getRevenue());
+        return vendorData;
+    }
+
+    private static class RankedVendor {
+        private final Vendor vendor;
+        private final long bookings;
+        private final double revenue;
+
+        RankedVendor(Vendor vendor, long bookings, double revenue) {
+            this.vendor = vendor;
+            this.bookings = bookings;
+            this.revenue = revenue;
+        }
+
+        Vendor getVendor() { return vendor; }
+        double getRating() { return vendor.getRating() != null ? vendor.getRating() : 0.0; }
+        long getBookings() { return bookings; }
+        double getRevenue() { return revenue; }
+    }
+}
@@ -0,0 +1,11 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Vendor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class VendorRegisteredEvent {
+    private final Vendor vendor;
+}
@@ -6,11 +6,14 @@ import com.eventcraft.EventCraft.entity.Vendor;
 import com.eventcraft.EventCraft.repository.UserRepository;
 import com.eventcraft.EventCraft.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +21,9 @@ public class VendorService {
 
     private final VendorRepository vendorRepository;
     private final UserRepository userRepository;
+    private final DailyMetricsService dailyMetricsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VendorAvailabilityService vendorAvailabilityService;
 
     public Vendor registerVendor(String userId, VendorRegDTO request) {
         // Find user
@@ -47,13 +53,24 @@ public class VendorService {
         user.setRole(User.Role.VENDOR);
         userRepository.save(user);
 
-        return vendorRepository.save(vendor);
+        Vendor savedVendor = vendorRepository.save(vendor);
+        dailyMetricsService.recordVendorCreated(savedVendor);
+        eventPublisher.publishEvent(new VendorRegisteredEvent(savedVendor));
+        return savedVendor;
     }
 
     public List<Vendor> getAllVendors() {
         return vendorRepository.findAll();
     }
 
+    /**
+     * Vendors without a confirmed assignment or signed contract on the date.
+     */
+    public List<Vendor> getVendorsAvailableOn(LocalDate date) {
+        Set<String> booked = vendorAvailabilityService.getVendorIdsBookedOn(date);
+        return booked.isEmpty() ? vendorRepository.findAll() : vendorRepository.findByIdNotIn(booked);
+    }
+
     public Optional<Vendor> getVendorById(String vendorId) {
         return vendorRepository.findById(vendorId);
     }
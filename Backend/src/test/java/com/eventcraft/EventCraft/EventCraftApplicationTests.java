@@ -3,7 +3,8 @@ package com.eventcraft.EventCraft;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No MongoDB here: startup jobs still wait on server selection at exit, so shutdown does not wait the default 30s for them
+@SpringBootTest(properties = "spring.lifecycle.timeout-per-shutdown-phase=2s")
 class EventCraftApplicationTests {
 
 	@Test
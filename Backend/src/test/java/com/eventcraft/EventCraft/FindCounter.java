@@ -0,0 +1,49 @@
+package com.eventcraft.EventCraft;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the find commands sent by the thread that last called reset(), for benchmarks comparing how many
+ * reads a code path needs. Add it to a @SpringBootTest with @Import(FindCounter.class).
+ * Startup jobs query on their own threads, so they are not counted.
+ */
+@TestConfiguration
+class FindCounter {
+
+	private static final AtomicInteger FINDS = new AtomicInteger();
+	private static volatile Thread measured;
+
+	@Bean
+	MongoClientSettingsBuilderCustomizer findCounter() {
+		return settings -> settings.addCommandListener(new CommandListener() {
+			@Override
+			public void commandStarted(CommandStartedEvent event) {
+				if (Thread.currentThread() == measured && "find".equals(event.getCommandName())) {
+					FINDS.incrementAndGet();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Count the current thread's finds from zero.
+	 */
+	static void reset() {
+		measured = Thread.currentThread();
+		FINDS.set(0);
+	}
+
+	static int count() {
+		return FINDS.get();
+	}
+
+	static void stop() {
+		measured = null;
+	}
+}
@@ -0,0 +1,122 @@
+package com.eventcraft.EventCraft;
+
+import com.eventcraft.EventCraft.entity.Chat;
+import com.eventcraft.EventCraft.entity.ChatParticipants;
+import com.eventcraft.EventCraft.entity.Message;
+import com.eventcraft.EventCraft.entity.User;
+import com.eventcraft.EventCraft.entity.Vendor;
+import com.eventcraft.EventCraft.repository.MessageRepository;
+import com.mongodb.DBRef;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the find commands needed to load one chat history with the legacy chat DBRef on each message
+ * against the embedded chatId and participant snapshot.
+ * Needs a running MongoDB: mvn test -Deventcraft.benchmarks=true
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "eventcraft.benchmarks", matches = "true")
+@Import(FindCounter.class)
+class MessageChatLookupBenchmarkTests {
+
+	private static final int MESSAGES = 200;
+	private static final String LEGACY_COLLECTION = "benchmark_legacy_messages";
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	private final List<Object> created = new ArrayList<>();
+
+	@Data
+	@org.springframework.data.mongodb.core.mapping.Document(collection = LEGACY_COLLECTION)
+	static class LegacyMessage {
+		@Id
+		private String id;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private Chat chat;
+		private String senderId;
+		private String content;
+		private LocalDateTime createdAt;
+	}
+
+	@Test
+	void embeddedChatIdLoadsHistoryInOneFind() {
+		User user = mongoTemplate.insert(User.builder().username("benchmark-user").email("benchmark@example.com").build());
+		Vendor vendor = mongoTemplate.insert(Vendor.builder().user(user).companyName("Benchmark Vendor").build());
+		Chat chat = mongoTemplate.insert(Chat.builder().vendor(vendor).user(user).build());
+		created.add(user);
+		created.add(vendor);
+		created.add(chat);
+
+		List<Document> legacy = new ArrayList<>();
+		List<Message> embedded = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			LocalDateTime at = LocalDateTime.now().minusMinutes(MESSAGES - i);
+			legacy.add(new Document("chat", new DBRef("chats", new ObjectId(chat.getId())))
+					.append("senderId", user.getId())
+					.append("content", "Message " + i)
+					.append("createdAt", Date.from(at.atZone(ZoneId.systemDefault()).toInstant())));
+			embedded.add(Message.builder()
+					.chatId(chat.getId())
+					.participants(ChatParticipants.of(chat))
+					.senderId(user.getId())
+					.senderType(Message.SenderType.USER)
+					.content("Message " + i)
+					.createdAt(at)
+					.build());
+		}
+		mongoTemplate.insert(legacy, LEGACY_COLLECTION);
+		messageRepository.insert(embedded).forEach(created::add);
+
+		FindCounter.reset();
+		List<LegacyMessage> legacyHistory = mongoTemplate.find(
+				Query.query(Criteria.where("chat.$id").is(new ObjectId(chat.getId()))), LegacyMessage.class);
+		int legacyFinds = FindCounter.count();
+
+		FindCounter.reset();
+		List<Message> history = messageRepository.findByChatIdOrderByCreatedAtAsc(chat.getId());
+		int embeddedFinds = FindCounter.count();
+
+		log.info("Chat history of {} messages: {} finds with the chat DBRef, {} with the embedded chatId",
+				MESSAGES, legacyFinds, embeddedFinds);
+		assertEquals(MESSAGES, legacyHistory.size());
+		assertEquals(MESSAGES, history.size());
+		assertEquals(vendor.getId(), history.get(0).getParticipants().getVendorId());
+		assertEquals(1, embeddedFinds);
+		assertTrue(legacyFinds > MESSAGES);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		FindCounter.stop();
+		mongoTemplate.dropCollection(LEGACY_COLLECTION);
+		created.forEach(mongoTemplate::remove);
+		created.clear();
+	}
+}
@@ -0,0 +1,183 @@
+package com.eventcraft.EventCraft;
+
+import com.eventcraft.EventCraft.dto.EventSummary;
+import com.eventcraft.EventCraft.dto.UserSummary;
+import com.eventcraft.EventCraft.entity.ChatbotConversation;
+import com.eventcraft.EventCraft.entity.Contract;
+import com.eventcraft.EventCraft.entity.Event;
+import com.eventcraft.EventCraft.entity.EventVendor;
+import com.eventcraft.EventCraft.entity.User;
+import com.eventcraft.EventCraft.repository.UserRepository;
+import com.eventcraft.EventCraft.service.EventService;
+import com.eventcraft.EventCraft.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds users with events, conversations, contracts and assigned vendors in a scratch database, then compares
+ * the list endpoints' reads before (eager DBRefs, full entities) and after (lazy DBRefs, summary projections):
+ * find commands sent and JSON bytes produced.
+ * Needs a running MongoDB: mvn test -Deventcraft.benchmarks=true
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.data.mongodb.database=eventcraft_benchmark")
+@EnabledIfSystemProperty(named = "eventcraft.benchmarks", matches = "true")
+@Import(FindCounter.class)
+class SummaryProjectionBenchmarkTests {
+
+	private static final int USERS = 50;
+	private static final int EVENTS_PER_USER = 4;
+	private static final int REFS_PER_EVENT = 3;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// The mappings as they were before the references became lazy
+
+	@Data
+	@org.springframework.data.mongodb.core.mapping.Document(collection = "users")
+	static class EagerUser {
+		@Id
+		private String id;
+		private String username;
+		private String email;
+		private String password;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private List<EagerEvent> events;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private List<ChatbotConversation> conversations;
+	}
+
+	@Data
+	@org.springframework.data.mongodb.core.mapping.Document(collection = "events")
+	static class EagerEvent {
+		@Id
+		private String id;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private User user;
+		private String name;
+		private LocalDate startDate;
+		private LocalDate endDate;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private List<ChatbotConversation> conversations;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private List<Contract> contracts;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		private List<EventVendor> vendors;
+	}
+
+	@Test
+	void summariesReadOneCommandPerList() throws Exception {
+		seed();
+
+		FindCounter.reset();
+		int eagerUserBytes = objectMapper.writeValueAsBytes(mongoTemplate.findAll(EagerUser.class)).length;
+		int eagerUserFinds = FindCounter.count();
+
+		FindCounter.reset();
+		int eagerEventBytes = objectMapper.writeValueAsBytes(mongoTemplate.findAll(EagerEvent.class)).length;
+		int eagerEventFinds = FindCounter.count();
+
+		FindCounter.reset();
+		List<User> lazyUsers = userRepository.findAll();
+		int lazyUserFinds = FindCounter.count();
+
+		FindCounter.reset();
+		List<UserSummary> users = userService.getUserSummaries();
+		int userSummaryBytes = objectMapper.writeValueAsBytes(users).length;
+		int userSummaryFinds = FindCounter.count();
+
+		FindCounter.reset();
+		List<EventSummary> events = eventService.getEventSummaries();
+		int eventSummaryBytes = objectMapper.writeValueAsBytes(events).length;
+		int eventSummaryFinds = FindCounter.count();
+
+		log.info("GET /api/users:  eager {} finds, {} bytes; summaries {} finds, {} bytes (lazy entities: {} finds)",
+				eagerUserFinds, eagerUserBytes, userSummaryFinds, userSummaryBytes, lazyUserFinds);
+		log.info("GET /api/events: eager {} finds, {} bytes; summaries {} finds, {} bytes",
+				eagerEventFinds, eagerEventBytes, eventSummaryFinds, eventSummaryBytes);
+
+		assertEquals(USERS, users.size());
+		assertEquals(USERS, lazyUsers.size());
+		assertEquals(USERS * EVENTS_PER_USER, events.size());
+		assertEquals(1, userSummaryFinds);
+		assertEquals(1, eventSummaryFinds);
+		assertEquals(1, lazyUserFinds);
+		assertTrue(eagerUserFinds > USERS);
+		assertTrue(eagerUserBytes > userSummaryBytes);
+		assertTrue(eagerEventBytes > eventSummaryBytes);
+	}
+
+	private void seed() {
+		for (int u = 0; u < USERS; u++) {
+			User user = mongoTemplate.insert(User.builder()
+					.username("user" + u)
+					.email("user" + u + "@example.com")
+					.password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmar")
+					.build());
+			List<Event> events = new ArrayList<>();
+			List<ChatbotConversation> userConversations = new ArrayList<>();
+			for (int e = 0; e < EVENTS_PER_USER; e++) {
+				Event event = mongoTemplate.insert(Event.builder()
+						.user(user)
+						.name("Event " + u + "-" + e)
+						.description("Benchmark event with a description of a typical length for a listing")
+						.startDate(LocalDate.now().plusDays(e))
+						.endDate(LocalDate.now().plusDays(e + 1))
+						.build());
+				List<ChatbotConversation> conversations = new ArrayList<>();
+				List<Contract> contracts = new ArrayList<>();
+				List<EventVendor> vendors = new ArrayList<>();
+				for (int r = 0; r < REFS_PER_EVENT; r++) {
+					conversations.add(mongoTemplate.insert(ChatbotConversation.builder().user(user).event(event)
+							.message("Which vendors are free that weekend?").response("Here are a few suggestions...").build()));
+					contracts.add(mongoTemplate.insert(Contract.builder().user(user).event(event)
+							.contractText("Standard service agreement text").clientName(user.getUsername()).build()));
+					vendors.add(mongoTemplate.insert(EventVendor.builder().event(event).assignedService("Catering").build()));
+				}
+				userConversations.addAll(conversations);
+				event.setConversations(conversations);
+				event.setContracts(contracts);
+				event.setVendors(vendors);
+				events.add(mongoTemplate.save(event));
+			}
+			user.setEvents(events);
+			user.setConversations(userConversations);
+			mongoTemplate.save(user);
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		FindCounter.stop();
+		mongoTemplate.getDb().drop();
+	}
+}
@@ -0,0 +1,54 @@
+package com.eventcraft.EventCraft.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EntityCacheTests {
+
+	private final EntityCache entityCache = new EntityCache(new SimpleMeterRegistry(), true, 100, 300);
+
+	@Test
+	void cachesWhatWasReadWhenNothingWasEvictedMeanwhile() {
+		long generation = entityCache.generation("users");
+		Document user = new Document("_id", "u1").append("username", "before");
+		entityCache.putAll("users", generation, List.of(user));
+
+		assertEquals(user, entityCache.getIfPresent("users", "u1"));
+	}
+
+	@Test
+	void dropsWhatWasReadBeforeAnEviction() {
+		long generation = entityCache.generation("users");
+		Document stale = new Document("_id", "u1").append("username", "before");
+		// The user is saved, and evicted, while the bulk read is in flight
+		entityCache.evict("users", "u1");
+		entityCache.putAll("users", generation, List.of(stale));
+
+		assertNull(entityCache.getIfPresent("users", "u1"));
+	}
+
+	@Test
+	void loadsOnceAndServesFromTheCacheUntilEvicted() {
+		int[] loads = new int[1];
+		for (int i = 0; i < 2; i++) {
+			entityCache.get("vendors", "v1", id -> {
+				loads[0]++;
+				return new Document("_id", id);
+			});
+		}
+		assertEquals(1, loads[0]);
+
+		entityCache.evict("vendors", "v1");
+		entityCache.get("vendors", "v1", id -> {
+			loads[0]++;
+			return new Document("_id", id);
+		});
+		assertEquals(2, loads[0]);
+	}
+}
@@ -0,0 +1,33 @@
+package com.eventcraft.EventCraft.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatPairKeyIndexTests {
+
+	private static final String VENDOR = "65a000000000000000000001";
+	private static final String VENDOR2 = "65a000000000000000000002";
+	private static final String KEY = "VV:" + VENDOR + ":" + VENDOR2;
+
+	@Test
+	void matchesLegacyVendorChatsInEitherDirectionUntilTheIndexIsReady() {
+		ChatPairKeyIndex index = new ChatPairKeyIndex();
+
+		Document criteria = index.keyOrParticipants(KEY, false, VENDOR2, null, VENDOR).getCriteriaObject();
+		List<?> alternatives = criteria.getList("$or", Document.class);
+		assertEquals(new Document("pairKey", KEY), alternatives.get(0));
+		assertEquals(new Document("isSystemChat", new Document("$ne", true)).append("$or", List.of(
+						new Document("vendor.$id", new ObjectId(VENDOR2)).append("vendor2.$id", new ObjectId(VENDOR)),
+						new Document("vendor.$id", new ObjectId(VENDOR)).append("vendor2.$id", new ObjectId(VENDOR2)))),
+				alternatives.get(1));
+
+		index.markReady();
+
+		assertEquals(new Document("pairKey", KEY), index.keyOrParticipants(KEY, false, VENDOR2, null, VENDOR).getCriteriaObject());
+	}
+}
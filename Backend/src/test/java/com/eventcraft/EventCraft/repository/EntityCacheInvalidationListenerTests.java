@@ -0,0 +1,63 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.eventcraft.EventCraft.config.EntityCache;
+import com.eventcraft.EventCraft.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EntityCacheInvalidationListenerTests {
+
+	private static final ObjectId FIRST = new ObjectId();
+	private static final ObjectId SECOND = new ObjectId();
+
+	private final EntityCache entityCache = new EntityCache(new SimpleMeterRegistry(), true, 100, 300);
+	private final EntityCacheInvalidationListener listener = new EntityCacheInvalidationListener(entityCache);
+
+	@BeforeEach
+	void cacheTwoUsers() {
+		entityCache.putAll("users", entityCache.generation("users"),
+				List.of(new Document("_id", FIRST), new Document("_id", SECOND)));
+	}
+
+	@Test
+	void evictsTheSavedDocument() {
+		listener.onApplicationEvent(new AfterSaveEvent<>(new User(), new Document("_id", FIRST), "users"));
+
+		assertNull(entityCache.getIfPresent("users", FIRST));
+		assertNotNull(entityCache.getIfPresent("users", SECOND));
+	}
+
+	@Test
+	void evictsTheDeletedDocument() {
+		listener.onApplicationEvent(new AfterDeleteEvent<>(new Document("_id", FIRST), User.class, "users"));
+
+		assertNull(entityCache.getIfPresent("users", FIRST));
+		assertNotNull(entityCache.getIfPresent("users", SECOND));
+	}
+
+	@Test
+	void evictsTheWholeCollectionOnAWiderDelete() {
+		listener.onApplicationEvent(new AfterDeleteEvent<>(new Document("_id", new Document("$in", List.of(FIRST))),
+				User.class, "users"));
+
+		assertNull(entityCache.getIfPresent("users", FIRST));
+		assertNull(entityCache.getIfPresent("users", SECOND));
+	}
+
+	@Test
+	void ignoresCollectionsItDoesNotCache() {
+		listener.onApplicationEvent(new AfterSaveEvent<>(new User(), new Document("_id", FIRST), "events"));
+
+		assertNotNull(entityCache.getIfPresent("users", FIRST));
+	}
+}
@@ -0,0 +1,35 @@
+package com.eventcraft.EventCraft.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LegacyMessageChatRefsTests {
+
+	private static final String CHAT_ID = "65a000000000000000000001";
+
+	@Test
+	void matchesTheLegacyReferenceUntilMigrated() {
+		LegacyMessageChatRefs refs = new LegacyMessageChatRefs();
+
+		assertEquals(new Document("$or", List.of(
+						new Document("chatId", CHAT_ID),
+						new Document("chat.$id", new ObjectId(CHAT_ID)))),
+				refs.chatIs(CHAT_ID).getCriteriaObject());
+
+		refs.markMigrated();
+
+		assertEquals(new Document("chatId", CHAT_ID), refs.chatIs(CHAT_ID).getCriteriaObject());
+	}
+
+	@Test
+	void readsTheChatIdFromEitherField() {
+		assertEquals(CHAT_ID, LegacyMessageChatRefs.chatIdOf(new Document("chatId", CHAT_ID)));
+		assertEquals(CHAT_ID, LegacyMessageChatRefs.chatIdOf(new Document("chat", new DBRef("chats", new ObjectId(CHAT_ID)))));
+	}
+}
@@ -0,0 +1,50 @@
+package com.eventcraft.EventCraft.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CalendarServiceTests {
+
+	private static final LocalDate PREFERRED = LocalDate.of(2027, 6, 15);
+
+	@Test
+	void suggestsThePreferredDateThenAlternatesAfterAndBefore() {
+		DayBitmap busy = new DayBitmap(PREFERRED.minusDays(10), PREFERRED.plusDays(10));
+
+		assertEquals(List.of(PREFERRED, PREFERRED.plusDays(1), PREFERRED.minusDays(1), PREFERRED.plusDays(2), PREFERRED.minusDays(2)),
+				CalendarService.freeDaysOutward(busy, PREFERRED, 10, 5));
+	}
+
+	@Test
+	void skipsBusyDaysWithoutChangingTheOrder() {
+		DayBitmap busy = new DayBitmap(PREFERRED.minusDays(10), PREFERRED.plusDays(10));
+		busy.set(PREFERRED.minusDays(1), PREFERRED.plusDays(1));
+		busy.set(PREFERRED.minusDays(3), PREFERRED.minusDays(3));
+
+		assertEquals(List.of(PREFERRED.plusDays(2), PREFERRED.minusDays(2), PREFERRED.plusDays(3), PREFERRED.plusDays(4)),
+				CalendarService.freeDaysOutward(busy, PREFERRED, 10, 4));
+	}
+
+	@Test
+	void onlySuggestsDaysInsideTheWindow() {
+		// The window starts at the preferred date, as it does when that date is today
+		DayBitmap busy = new DayBitmap(PREFERRED, PREFERRED.plusDays(10));
+
+		assertEquals(List.of(PREFERRED, PREFERRED.plusDays(1), PREFERRED.plusDays(2)),
+				CalendarService.freeDaysOutward(busy, PREFERRED, 10, 3));
+	}
+
+	@Test
+	void stopsAtTheHorizon() {
+		DayBitmap busy = new DayBitmap(PREFERRED.minusDays(10), PREFERRED.plusDays(10));
+		busy.set(PREFERRED.minusDays(2), PREFERRED.plusDays(2));
+
+		assertEquals(List.of(), CalendarService.freeDaysOutward(busy, PREFERRED, 2, 5));
+		assertEquals(List.of(PREFERRED.plusDays(3), PREFERRED.minusDays(3)),
+				CalendarService.freeDaysOutward(busy, PREFERRED, 3, 5));
+	}
+}
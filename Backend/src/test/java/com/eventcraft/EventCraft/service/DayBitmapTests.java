@@ -0,0 +1,91 @@
+package com.eventcraft.EventCraft.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayBitmapTests {
+
+	private static final LocalDate FROM = LocalDate.of(2027, 12, 30);
+	private static final LocalDate TO = LocalDate.of(2028, 1, 2);
+
+	@Test
+	void clipsIntervalsToTheRange() {
+		DayBitmap bitmap = new DayBitmap(FROM, TO);
+		bitmap.set(FROM.minusDays(5), FROM);
+		bitmap.set(TO, TO.plusDays(5));
+
+		assertEquals(List.of(FROM, TO), bitmap.days(true));
+		assertEquals(List.of(FROM.plusDays(1), FROM.plusDays(2)), bitmap.days(false));
+	}
+
+	@Test
+	void setsTheWholeRangeFromAnIntervalCoveringIt() {
+		DayBitmap bitmap = new DayBitmap(FROM, TO);
+		bitmap.set(FROM.minusDays(1), TO.plusDays(1));
+
+		assertEquals(List.of(), bitmap.days(false));
+		assertEquals(4, bitmap.days(true).size());
+	}
+
+	@Test
+	void ignoresIntervalsOutsideTheRange() {
+		DayBitmap bitmap = new DayBitmap(FROM, TO);
+		bitmap.set(FROM.minusDays(3), FROM.minusDays(1));
+		bitmap.set(TO.plusDays(1), TO.plusDays(3));
+		// An inverted interval sets nothing
+		bitmap.set(TO, FROM);
+
+		assertEquals(List.of(), bitmap.days(true));
+		assertFalse(bitmap.get(FROM.minusDays(1)));
+		assertFalse(bitmap.contains(TO.plusDays(1)));
+	}
+
+	@Test
+	void treatsAnInvertedRangeAsEmpty() {
+		DayBitmap bitmap = new DayBitmap(TO, FROM);
+		bitmap.set(FROM, TO);
+
+		assertEquals(List.of(), bitmap.days(true));
+		assertEquals(List.of(), bitmap.days(false));
+		assertFalse(bitmap.contains(FROM));
+		assertFalse(bitmap.get(TO));
+	}
+
+	@Test
+	void coversASingleDayRange() {
+		DayBitmap bitmap = new DayBitmap(FROM, FROM);
+		assertEquals(List.of(FROM), bitmap.days(false));
+
+		bitmap.set(FROM, FROM);
+		assertTrue(bitmap.get(FROM));
+		assertEquals(List.of(FROM), bitmap.days(true));
+	}
+
+	@Test
+	void orsBitmapsOverTheSameRange() {
+		DayBitmap bitmap = new DayBitmap(FROM, TO);
+		bitmap.set(FROM, FROM);
+		DayBitmap other = new DayBitmap(FROM, TO);
+		other.set(TO, TO);
+
+		bitmap.or(other);
+
+		assertEquals(List.of(FROM, TO), bitmap.days(true));
+		assertEquals(List.of(TO), other.days(true));
+	}
+
+	@Test
+	void rejectsOrOverDifferentRanges() {
+		DayBitmap bitmap = new DayBitmap(FROM, TO);
+
+		assertThrows(IllegalArgumentException.class, () -> bitmap.or(new DayBitmap(FROM, TO.plusDays(1))));
+		assertThrows(IllegalArgumentException.class, () -> bitmap.or(new DayBitmap(FROM.minusDays(1), TO)));
+	}
+}
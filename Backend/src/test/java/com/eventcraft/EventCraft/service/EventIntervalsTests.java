@@ -0,0 +1,76 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventIntervalsTests {
+
+	private static final LocalDate DAY = LocalDate.of(2027, 3, 1);
+
+	@Test
+	void coversEveryDayOfNestedEvents() {
+		Event outer = event("outer", DAY.plusDays(1), DAY.plusDays(6));
+		Event inner = event("inner", DAY.plusDays(2), DAY.plusDays(3));
+
+		// The inner event ends first, so the outer one keeps covering the days after it
+		assertEquals(Arrays.asList(null, outer, outer, outer, outer, outer, outer, null),
+				sweep(List.of(inner, outer), DAY, DAY.plusDays(7)));
+	}
+
+	@Test
+	void coversTheUnionOfOverlappingEvents() {
+		Event first = event("first", DAY, DAY.plusDays(2));
+		Event second = event("second", DAY.plusDays(2), DAY.plusDays(4));
+		Event later = event("later", DAY.plusDays(6), DAY.plusDays(6));
+
+		assertEquals(Arrays.asList(first, first, second, second, second, null, later, null),
+				sweep(List.of(later, second, first), DAY, DAY.plusDays(7)));
+	}
+
+	@Test
+	void coversTheRangeWithEventsStartedBeforeIt() {
+		Event running = event("running", DAY.minusDays(10), DAY.plusDays(1));
+		Event ended = event("ended", DAY.minusDays(5), DAY.minusDays(1));
+
+		assertEquals(Arrays.asList(running, running, null),
+				sweep(List.of(ended, running), DAY, DAY.plusDays(2)));
+	}
+
+	@Test
+	void ignoresEventsWithoutDates() {
+		assertEquals(Arrays.asList(null, null),
+				sweep(List.of(event("open", DAY, null), event("unscheduled", null, DAY)), DAY, DAY.plusDays(1)));
+	}
+
+	@Test
+	void visitsNothingForAnInvertedRange() {
+		assertEquals(List.of(), sweep(List.of(event("event", DAY, DAY)), DAY, DAY.minusDays(1)));
+	}
+
+	// The event covering each day of [from, to], or null when it is free
+	private static List<Event> sweep(List<Event> events, LocalDate from, LocalDate to) {
+		List<Event> covering = new ArrayList<>();
+		List<LocalDate> days = new ArrayList<>();
+		new EventIntervals(events).sweep(from, to, (day, event) -> {
+			days.add(day);
+			covering.add(event);
+		});
+		assertEquals(from.datesUntil(to.plusDays(1)).toList(), days);
+		return covering;
+	}
+
+	private static Event event(String id, LocalDate start, LocalDate end) {
+		Event event = new Event();
+		event.setId(id);
+		event.setStartDate(start);
+		event.setEndDate(end);
+		return event;
+	}
+}
@@ -0,0 +1,50 @@
+package com.eventcraft.EventCraft.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageCursorTests {
+
+	@Test
+	void roundTripsTheTimeToTheMillisecond() {
+		// MongoDB stores dates in milliseconds, so the cursor keeps no more
+		LocalDateTime createdAt = LocalDateTime.of(2027, 3, 1, 12, 30, 45, 123_456_789);
+
+		MessageCursor cursor = MessageCursor.decode(MessageCursor.encode(createdAt, "65f1c0ffee"));
+
+		assertEquals(LocalDateTime.of(2027, 3, 1, 12, 30, 45, 123_000_000), cursor.getCreatedAt());
+		assertEquals("65f1c0ffee", cursor.getId());
+	}
+
+	@Test
+	void encodesAUrlSafeToken() {
+		String cursor = MessageCursor.encode(LocalDateTime.of(2027, 3, 1, 0, 0), "a/b+c?d");
+
+		assertEquals(-1, cursor.indexOf('/'));
+		assertEquals(-1, cursor.indexOf('+'));
+		assertEquals("a/b+c?d", MessageCursor.decode(cursor).getId());
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertInvalid("not base64!");
+		assertInvalid(encode("no separator"));
+		assertInvalid(encode("notanumber:65f1c0ffee"));
+		assertInvalid(encode("1700000000000:"));
+	}
+
+	private static void assertInvalid(String cursor) {
+		RuntimeException e = assertThrows(RuntimeException.class, () -> MessageCursor.decode(cursor));
+		assertEquals("Invalid message cursor", e.getMessage());
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
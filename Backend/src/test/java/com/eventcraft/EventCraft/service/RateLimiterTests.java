@@ -0,0 +1,102 @@
+package com.eventcraft.EventCraft.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimiterTests {
+
+	private static final RateLimiter.Action SEND = RateLimiter.Action.SEND_MESSAGE;
+
+	private RateLimiter rateLimiter;
+	private long now;
+
+	@BeforeEach
+	void setUp() {
+		rateLimiter = new RateLimiter(new SimpleMeterRegistry());
+		rateLimiter.clock = () -> now;
+		ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+		ReflectionTestUtils.setField(rateLimiter, "maxKeys", 100);
+		// Senders: a burst of 3, then one a second; addresses: a burst of 5, then one a second
+		ReflectionTestUtils.setField(rateLimiter, "messageSenderCapacity", 3);
+		ReflectionTestUtils.setField(rateLimiter, "messageSenderPerMinute", 60);
+		ReflectionTestUtils.setField(rateLimiter, "messageIpCapacity", 5);
+		ReflectionTestUtils.setField(rateLimiter, "messageIpPerMinute", 60);
+	}
+
+	@Test
+	void allowsTheBurstThenRejects() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire(SEND, "sender", null);
+		}
+		RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire(SEND, "sender", null));
+		assertEquals(1, e.getRetryAfterSeconds());
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire(SEND, "sender", null);
+		}
+		now += TimeUnit.MILLISECONDS.toNanos(999);
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(SEND, "sender", null));
+
+		now += TimeUnit.MILLISECONDS.toNanos(1);
+		assertDoesNotThrow(() -> rateLimiter.acquire(SEND, "sender", null));
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(SEND, "sender", null));
+
+		// Refilling never goes past the burst
+		now += TimeUnit.MINUTES.toNanos(10);
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire(SEND, "sender", null);
+		}
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(SEND, "sender", null));
+	}
+
+	@Test
+	void givesBackTheSenderTokenWhenTheAddressIsLimited() {
+		for (int i = 0; i < 5; i++) {
+			rateLimiter.acquire(SEND, "other-" + i, "10.0.0.1");
+		}
+		for (int i = 0; i < 3; i++) {
+			assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(SEND, "sender", "10.0.0.1"));
+		}
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire(SEND, "sender", "10.0.0.2");
+		}
+	}
+
+	@Test
+	void sweepDropsOnlyRefilledBuckets() {
+		rateLimiter.acquire(SEND, "idle", null);
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire(SEND, "busy", null);
+		}
+		now += TimeUnit.SECONDS.toNanos(1);
+		rateLimiter.sweep();
+		assertEquals(1, rateLimiter.bucketCount());
+
+		// The kept bucket is still partly drained
+		rateLimiter.acquire(SEND, "busy", null);
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(SEND, "busy", null));
+	}
+
+	@Test
+	void evictsBucketsBeyondTheCap() {
+		for (int i = 0; i < 100; i++) {
+			rateLimiter.acquire(SEND, "sender-" + i, null);
+		}
+		assertEquals(100, rateLimiter.bucketCount());
+
+		rateLimiter.acquire(SEND, "one-more", null);
+		assertEquals(91, rateLimiter.bucketCount());
+	}
+}
@@ -0,0 +1,115 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentSendCacheTests {
+
+	@Test
+	void answersRetriesOnceTheClaimedSendIsStored() {
+		RecentSendCache cache = new RecentSendCache(10);
+		Message first = message("m1", "sender", "client-1");
+
+		assertNull(cache.claim(first));
+		CompletableFuture<Message> retry = cache.claim(message("m2", "sender", "client-1"));
+		// Still in flight: a retry waits rather than getting a message that may not be stored
+		assertFalse(retry.isDone());
+		assertNull(cache.get("sender", "client-1"));
+
+		cache.stored(first);
+
+		assertSame(first, retry.getNow(null));
+		assertSame(first, cache.get("sender", "client-1"));
+	}
+
+	@Test
+	void releasesWaitingRetriesWhenTheSendFails() {
+		RecentSendCache cache = new RecentSendCache(10);
+		Message failed = message("m1", "sender", "client-1");
+		cache.claim(failed);
+		CompletableFuture<Message> retry = cache.claim(message("m2", "sender", "client-1"));
+
+		cache.release(failed);
+
+		assertTrue(retry.isDone());
+		assertNull(retry.getNow(null));
+		// The key is free for the retry to claim
+		Message again = message("m3", "sender", "client-1");
+		assertNull(cache.claim(again));
+	}
+
+	@Test
+	void dropsAStoredSendThatIsRejectedLater() {
+		RecentSendCache cache = new RecentSendCache(10);
+		Message sent = message("m1", "sender", "client-1");
+		cache.claim(sent);
+		cache.stored(sent);
+
+		cache.release("sender", "client-1", "m1");
+
+		assertNull(cache.get("sender", "client-1"));
+	}
+
+	@Test
+	void keepsKeysOfDifferentSendersApart() {
+		RecentSendCache cache = new RecentSendCache(10);
+		Message mine = message("m1", "sender", "client-1");
+		Message theirs = message("m2", "other", "client-1");
+
+		assertNull(cache.claim(mine));
+		assertNull(cache.claim(theirs));
+		cache.stored(mine);
+		cache.stored(theirs);
+		assertSame(mine, cache.get("sender", "client-1"));
+		assertSame(theirs, cache.get("other", "client-1"));
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedKey() {
+		RecentSendCache cache = new RecentSendCache(2);
+		Message first = stored(cache, message("m1", "sender", "client-1"));
+		stored(cache, message("m2", "sender", "client-2"));
+
+		// Reading the first key makes the second the eldest
+		cache.get("sender", "client-1");
+		stored(cache, message("m3", "sender", "client-3"));
+
+		assertSame(first, cache.get("sender", "client-1"));
+		assertNull(cache.get("sender", "client-2"));
+	}
+
+	@Test
+	void releasesOnlyItsOwnClaim() {
+		RecentSendCache cache = new RecentSendCache(10);
+		Message sent = stored(cache, message("m1", "sender", "client-1"));
+
+		// A failed send that lost the claim must not drop the message that won it
+		cache.release(message("m2", "sender", "client-1"));
+		cache.release("sender", "client-1", "m3");
+		assertSame(sent, cache.get("sender", "client-1"));
+
+		cache.release(sent);
+		assertNull(cache.get("sender", "client-1"));
+	}
+
+	private static Message stored(RecentSendCache cache, Message message) {
+		assertNull(cache.claim(message));
+		cache.stored(message);
+		return message;
+	}
+
+	private static Message message(String id, String senderId, String clientMessageId) {
+		Message message = new Message();
+		message.setId(id);
+		message.setSenderId(senderId);
+		message.setClientMessageId(clientMessageId);
+		return message;
+	}
+}
@@ -0,0 +1,92 @@
+package com.eventcraft.EventCraft.service;
+
+import com.eventcraft.EventCraft.entity.Event;
+import com.eventcraft.EventCraft.entity.VendorBookedDays;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VendorAvailabilityServiceTests {
+
+	@Test
+	void setsTheBitsThatBitsAnySetNumbersForEachDay() {
+		// Leap day, and the last day of a leap year (day 366, the last bit stored)
+		Map<Integer, byte[]> years = VendorAvailabilityService.bitmaps(List.of(
+				event(LocalDate.of(2028, 2, 29), LocalDate.of(2028, 2, 29)),
+				event(LocalDate.of(2028, 12, 31), LocalDate.of(2028, 12, 31))));
+
+		byte[] days = years.get(2028);
+		assertEquals(VendorAvailabilityService.BYTES_PER_YEAR, days.length);
+		assertTrue(bitsAnySet(days, LocalDate.of(2028, 2, 29).getDayOfYear() - 1));
+		assertTrue(bitsAnySet(days, 365));
+		assertFalse(bitsAnySet(days, LocalDate.of(2028, 2, 28).getDayOfYear() - 1));
+		assertFalse(bitsAnySet(days, LocalDate.of(2028, 3, 1).getDayOfYear() - 1));
+		assertFalse(bitsAnySet(days, 364));
+		assertEquals(2, countSet(days));
+	}
+
+	@Test
+	void splitsEventsAtYearBoundaries() {
+		Map<Integer, byte[]> years = VendorAvailabilityService.bitmaps(List.of(
+				event(LocalDate.of(2026, 12, 30), LocalDate.of(2027, 1, 2))));
+
+		assertEquals(List.of(2026, 2027), List.copyOf(years.keySet()));
+		// 2026 is not a leap year, so December 30 and 31 are days 364 and 365
+		assertTrue(bitsAnySet(years.get(2026), 363));
+		assertTrue(bitsAnySet(years.get(2026), 364));
+		assertFalse(bitsAnySet(years.get(2026), 365));
+		assertEquals(2, countSet(years.get(2026)));
+		assertTrue(bitsAnySet(years.get(2027), 0));
+		assertTrue(bitsAnySet(years.get(2027), 1));
+		assertEquals(2, countSet(years.get(2027)));
+	}
+
+	@Test
+	void readsBackTheDaysItWrote() {
+		LocalDate from = LocalDate.of(2027, 12, 25);
+		LocalDate to = LocalDate.of(2028, 1, 5);
+		Map<Integer, byte[]> years = VendorAvailabilityService.bitmaps(List.of(
+				event(LocalDate.of(2027, 12, 31), LocalDate.of(2028, 1, 1)),
+				event(LocalDate.of(2028, 1, 4), LocalDate.of(2028, 1, 4))));
+
+		DayBitmap booked = new DayBitmap(from, to);
+		years.forEach((year, days) -> VendorAvailabilityService.mark(booked,
+				VendorBookedDays.builder().year(year).days(days).build()));
+
+		assertEquals(List.of(LocalDate.of(2027, 12, 31), LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 4)),
+				booked.days(true));
+	}
+
+	@Test
+	void skipsEventsWithoutValidDates() {
+		assertTrue(VendorAvailabilityService.bitmaps(List.of(
+				event(null, LocalDate.of(2027, 1, 1)),
+				event(LocalDate.of(2027, 1, 2), LocalDate.of(2027, 1, 1)))).isEmpty());
+	}
+
+	// MongoDB's $bitsAnySet on binary data: position 0 is the least significant bit of the first byte
+	private static boolean bitsAnySet(byte[] data, int position) {
+		return position / 8 < data.length && (data[position / 8] & (1 << (position % 8))) != 0;
+	}
+
+	private static int countSet(byte[] data) {
+		int count = 0;
+		for (byte b : data) {
+			count += Integer.bitCount(b & 0xFF);
+		}
+		return count;
+	}
+
+	private static Event event(LocalDate start, LocalDate end) {
+		Event event = new Event();
+		event.setStartDate(start);
+		event.setEndDate(end);
+		return event;
+	}
+}